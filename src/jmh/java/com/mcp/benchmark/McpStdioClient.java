@@ -0,0 +1,196 @@
+package com.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Description 通过stdio与MCP服务端进程通信的JSON-RPC客户端，和Agent启动MCP服务的方式一致：
+ *              每行一条JSON消息，请求按id异步匹配响应，支持多线程并发发起调用
+ */
+public class McpStdioClient implements Closeable {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Process process;
+    private final Writer writer;
+    private final Map<Long, CompletableFuture<JsonNode>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final List<String> strayOutput = new CopyOnWriteArrayList<>();
+
+    public McpStdioClient(List<String> command, Path stderrLog) throws IOException {
+        process = new ProcessBuilder(command)
+                .redirectError(stderrLog.toFile())
+                .start();
+        writer = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+
+        Thread reader = new Thread(this::readLoop, "mcp-stdio-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * 服务端进程启动时间，用于把GC日志中的JVM运行时间换算成压测阶段
+     */
+    public Instant getStartTime() {
+        return process.info().startInstant().orElse(Instant.now());
+    }
+
+    /**
+     * 服务端输出到stdout的非JSON-RPC内容（最多保留20行），如JVM默认输出到stdout的[warning]日志，
+     * 真实的MCP客户端会因此无法解析消息
+     */
+    public List<String> getStrayOutput() {
+        return strayOutput;
+    }
+
+    /**
+     * MCP握手：initialize请求 + initialized通知
+     */
+    public JsonNode initialize(long timeoutMillis) throws Exception {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("protocolVersion", "2024-11-05");
+        params.put("capabilities", Map.of());
+        params.put("clientInfo", Map.of("name", "db-mcp-loadtest", "version", "1.0"));
+        JsonNode result = request("initialize", params).get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        Map<String, Object> notification = new LinkedHashMap<>();
+        notification.put("jsonrpc", "2.0");
+        notification.put("method", "notifications/initialized");
+        send(notification);
+        return result;
+    }
+
+    public CompletableFuture<JsonNode> callTool(String name, Map<String, Object> arguments) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("name", name);
+        params.put("arguments", arguments);
+        return request("tools/call", params);
+    }
+
+    public CompletableFuture<JsonNode> request(String method, Object params) {
+        long id = ids.incrementAndGet();
+        CompletableFuture<JsonNode> future = new CompletableFuture<>();
+        pending.put(id, future);
+
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("jsonrpc", "2.0");
+        message.put("id", id);
+        message.put("method", method);
+        message.put("params", params);
+        try {
+            send(message);
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 从tools/call的响应中取出工具返回的Response.code，工具返回值会被再序列化一次成JSON字符串
+     *
+     * @return 取不到时返回-1
+     */
+    public int toolCode(JsonNode response) {
+        try {
+            JsonNode result = response.path("result");
+            if (response.has("error") || result.path("isError").asBoolean(false)) {
+                return -1;
+            }
+            JsonNode body = objectMapper.readTree(result.path("content").path(0).path("text").asText());
+            if (body.isTextual()) {
+                body = objectMapper.readTree(body.asText());
+            }
+            return body.path("code").asInt(-1);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 取出工具返回的Response.data
+     */
+    public JsonNode toolData(JsonNode response) throws IOException {
+        JsonNode body = objectMapper.readTree(response.path("result").path("content").path(0).path("text").asText());
+        if (body.isTextual()) {
+            body = objectMapper.readTree(body.asText());
+        }
+        return body.path("data");
+    }
+
+    private void send(Map<String, Object> message) throws IOException {
+        String line = objectMapper.writeValueAsString(message);
+        synchronized (writer) {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    private void readLoop() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // 跳过并记录服务端输出到stdout的非JSON-RPC内容
+                if (!line.startsWith("{")) {
+                    if (strayOutput.size() < 20) {
+                        strayOutput.add(line);
+                    }
+                    continue;
+                }
+                JsonNode message = objectMapper.readTree(line);
+                JsonNode id = message.get("id");
+                if (id == null || !message.has("jsonrpc") || message.has("method")) {
+                    continue;
+                }
+                CompletableFuture<JsonNode> future = pending.remove(id.asLong());
+                if (future != null) {
+                    future.complete(message);
+                }
+            }
+        } catch (IOException e) {
+            // 进程退出
+        } finally {
+            IOException closed = new IOException("MCP服务端进程已退出");
+            pending.values().forEach(future -> future.completeExceptionally(closed));
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            // 进程可能已经退出
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
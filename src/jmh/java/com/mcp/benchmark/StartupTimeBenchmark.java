@@ -0,0 +1,177 @@
+package com.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.DbMcpDemoApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * @Description 启动耗时测量：重复启动MCP服务端进程，记录从启动进程到initialize响应、tools/list响应
+ *              以及第一次工具调用响应的时间，用于比较普通启动与AOT、AppCDS、CRaC等快速启动方式。
+ *
+ *              参数（系统属性）：
+ *              startup.runs            启动次数，默认5
+ *              startup.faststart       按快速启动方式启动：使用AOT和与jar包同名的AppCDS归档，并把JVM日志输出到stderr，
+ *                                      与README中的启动参数一致。未指定startup.jar时使用target/faststart下的jar包
+ *              startup.jar             服务端jar包路径，为空时使用当前classpath启动
+ *              startup.jvmArgs         额外的服务端JVM参数，以空格分隔
+ *              startup.output          报告输出目录，默认target/startup
+ *              startup.maxFirstResponseMillis 第一次工具调用响应时间中位数上限（毫秒），0表示不检查
+ */
+public class StartupTimeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final boolean faststart = Boolean.getBoolean("startup.faststart");
+    private final String jar = resolveJar(System.getProperty("startup.jar", ""));
+    private final String jvmArgs = System.getProperty("startup.jvmArgs", "");
+    private final Path output = Paths.get(System.getProperty("startup.output", "target/startup"));
+    private final double maxFirstResponseMillis =
+            Double.parseDouble(System.getProperty("startup.maxFirstResponseMillis", "0"));
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new StartupTimeBenchmark().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Files.createDirectories(output);
+        List<Map<String, Object>> samples = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            Map<String, Object> sample = measure(i);
+            samples.add(sample);
+            System.out.printf("run %d: initialize %dms, tools/list %dms, first tool response %dms%n", i + 1,
+                    sample.get("initializeMillis"), sample.get("toolsListMillis"), sample.get("firstToolResponseMillis"));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (String metric : List.of("initializeMillis", "toolsListMillis", "firstToolResponseMillis")) {
+            long[] values = samples.stream().mapToLong(sample -> (long) sample.get(metric)).sorted().toArray();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("min", values[0]);
+            stats.put("median", values[values.length / 2]);
+            stats.put("max", values[values.length - 1]);
+            summary.put(metric, stats);
+        }
+        @SuppressWarnings("unchecked")
+        long median = (long) ((Map<String, Object>) summary.get("firstToolResponseMillis")).get("median");
+        boolean fastEnough = maxFirstResponseMillis <= 0 || median <= maxFirstResponseMillis;
+        System.out.printf("time to first tool response: median %dms%s%n", median,
+                fastEnough ? "" : String.format(" > %.0fms FAIL", maxFirstResponseMillis));
+        // stdout上的任何非JSON-RPC输出都会破坏真实客户端的会话
+        boolean cleanStdout = samples.stream().allMatch(sample -> ((List<?>) sample.get("strayStdout")).isEmpty());
+        if (!cleanStdout) {
+            System.out.println("服务端向stdout输出了非JSON-RPC内容 FAIL，见报告中的strayStdout");
+        }
+        boolean passed = fastEnough && cleanStdout;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("faststart", faststart);
+        report.put("jar", jar);
+        report.put("jvmArgs", jvmArgs);
+        report.put("runs", runs);
+        report.put("passed", passed);
+        report.put("summary", summary);
+        report.put("samples", samples);
+        Path reportFile = output.resolve("startup.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        System.out.println("报告已写入 " + reportFile.toAbsolutePath());
+        return passed;
+    }
+
+    private Map<String, Object> measure(int run) throws Exception {
+        long start = System.nanoTime();
+        try (McpStdioClient client = new McpStdioClient(serverCommand(), output.resolve("server-" + run + ".log"))) {
+            client.initialize(TimeUnit.MINUTES.toMillis(2));
+            long initialized = System.nanoTime();
+
+            JsonNode tools = client.request("tools/list", Map.of()).get(1, TimeUnit.MINUTES);
+            long listed = System.nanoTime();
+
+            JsonNode response = client.callTool("getServerMetrics", Map.of()).get(1, TimeUnit.MINUTES);
+            long firstResponse = System.nanoTime();
+            if (response.has("error")) {
+                throw new IllegalStateException("工具调用失败: " + response);
+            }
+
+            Map<String, Object> sample = new LinkedHashMap<>();
+            sample.put("initializeMillis", TimeUnit.NANOSECONDS.toMillis(initialized - start));
+            sample.put("toolsListMillis", TimeUnit.NANOSECONDS.toMillis(listed - start));
+            sample.put("firstToolResponseMillis", TimeUnit.NANOSECONDS.toMillis(firstResponse - start));
+            sample.put("tools", tools.path("result").path("tools").size());
+            sample.put("strayStdout", List.copyOf(client.getStrayOutput()));
+            return sample;
+        }
+    }
+
+    private List<String> serverCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (faststart) {
+            // 与训练归档时的配置一致；JVM日志默认输出到stdout，改到stderr避免CDS告警混进JSON-RPC消息
+            command.add("-XX:SharedArchiveFile=" + archive());
+            command.add("-Dspring.aot.enabled=true");
+            command.add("-Xlog:disable");
+            command.add("-Xlog:all=warning:stderr");
+        }
+        if (!jvmArgs.isBlank()) {
+            command.addAll(Arrays.asList(jvmArgs.trim().split("\\s+")));
+        }
+        command.add("-Dspring.ai.mcp.server.stdio=true");
+        command.add("-Dspring.main.web-application-type=none");
+        command.add("-Dlogging.pattern.console=");
+        if (jar.isBlank()) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(DbMcpDemoApplication.class.getName());
+        } else {
+            command.add("-jar");
+            command.add(jar);
+        }
+        return command;
+    }
+
+    /**
+     * 快速启动模式下未指定jar包时，使用mvn -Pfaststart package解压出的jar包
+     */
+    private String resolveJar(String configured) {
+        if (!configured.isBlank() || !faststart) {
+            return configured;
+        }
+        Path dir = Paths.get("target", "faststart");
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .map(file -> file.toAbsolutePath().toString())
+                    .orElseThrow(() -> new IllegalStateException(dir + "下没有jar包，请先执行mvn -Pfaststart clean package"));
+        } catch (IOException e) {
+            throw new IllegalStateException(dir + "不存在，请先执行mvn -Pfaststart clean package", e);
+        }
+    }
+
+    /**
+     * AppCDS归档与jar包同目录同名，使用绝对路径，与工作目录无关
+     */
+    private String archive() {
+        if (jar.isBlank()) {
+            throw new IllegalStateException("startup.faststart需要jar包启动");
+        }
+        Path jarPath = Paths.get(jar).toAbsolutePath();
+        String name = jarPath.getFileName().toString();
+        Path archive = jarPath.resolveSibling(name.substring(0, name.length() - ".jar".length()) + ".jsa");
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("未找到AppCDS归档" + archive + "，请先执行mvn -Pfaststart clean package");
+        }
+        return archive.toString();
+    }
+}
@@ -0,0 +1,440 @@
+package com.mcp.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.DbMcpDemoApplication;
+import com.mcp.contant.Code;
+import com.mcp.metrics.LatencyHistogram;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Description 端到端压测：以子进程方式启动DbMcpDemoApplication，通过stdio JSON-RPC并发调用工具，
+ *              MySQL由H2（MySQL模式，内存库）代替，Redis由进程内的RespServerStub代替。
+ *              每个场景使用独立的服务端进程，统计吞吐、延迟分布、服务端堆使用和GC停顿，
+ *              可通过阈值参数作为性能回归门禁，不满足时以非0退出。
+ *
+ *              参数（系统属性）：
+ *              loadtest.scenarios      场景列表，默认schema,large-select,redis,mixed
+ *              loadtest.concurrency    并发调用数，默认8
+ *              loadtest.warmupSeconds  预热时间，默认3
+ *              loadtest.durationSeconds 压测时间，默认10
+ *              loadtest.rows           表数据行数，默认5000
+ *              loadtest.serverJvmArgs  服务端JVM参数，默认-Xms256m -Xmx256m
+ *              loadtest.heapSampleMillis 压测阶段通过getServerMetrics采样服务端堆使用的间隔，默认250
+ *              loadtest.output         报告输出目录，默认target/loadtest
+ *              loadtest.maxP99Millis   p99上限（毫秒），0表示不检查
+ *              loadtest.minThroughput  吞吐下限（次/秒），0表示不检查
+ *              loadtest.maxErrorRate   错误率上限，默认0
+ */
+public class StdioLoadTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int REDIS_KEYS = 1000;
+    // G1/Parallel/Serial的停顿日志格式：Pause Young (Normal) (G1 Evacuation Pause) 24M->3M(256M) 1.234ms
+    private static final Pattern GC_PAUSE = Pattern.compile(
+            "^\\[(\\d+)ms].*Pause.*?(\\d+)M->(\\d+)M\\((\\d+)M\\)\\s+([\\d.]+)ms");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> scenarios = Arrays.asList(
+            System.getProperty("loadtest.scenarios", "schema,large-select,redis,mixed").split(","));
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 8);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmupSeconds", 3);
+    private final int durationSeconds = Integer.getInteger("loadtest.durationSeconds", 10);
+    private final int rows = Integer.getInteger("loadtest.rows", 5000);
+    private final int heapSampleMillis = Integer.getInteger("loadtest.heapSampleMillis", 250);
+    private final String serverJvmArgs = System.getProperty("loadtest.serverJvmArgs", "-Xms256m -Xmx256m");
+    private final Path output = Paths.get(System.getProperty("loadtest.output", "target/loadtest"));
+    private final double maxP99Millis = Double.parseDouble(System.getProperty("loadtest.maxP99Millis", "0"));
+    private final double minThroughput = Double.parseDouble(System.getProperty("loadtest.minThroughput", "0"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0"));
+
+    public static void main(String[] args) throws Exception {
+        System.exit(new StdioLoadTest().run() ? 0 : 1);
+    }
+
+    private boolean run() throws Exception {
+        Files.createDirectories(output);
+        List<Map<String, Object>> results = new ArrayList<>();
+        boolean passed = true;
+
+        try (RespServerStub redis = new RespServerStub()) {
+            seedRedis(redis);
+            for (String scenario : scenarios) {
+                Map<String, Object> result = runScenario(scenario.trim(), redis);
+                results.add(result);
+                passed &= check(result);
+            }
+        }
+
+        printReport(results);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("concurrency", concurrency);
+        report.put("warmupSeconds", warmupSeconds);
+        report.put("durationSeconds", durationSeconds);
+        report.put("rows", rows);
+        report.put("serverJvmArgs", serverJvmArgs);
+        report.put("passed", passed);
+        report.put("scenarios", results);
+        Path reportFile = output.resolve("report.json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+        System.out.println("报告已写入 " + reportFile.toAbsolutePath());
+        return passed;
+    }
+
+    private Map<String, Object> runScenario(String scenario, RespServerStub redis) throws Exception {
+        List<Operation> operations = operations(scenario);
+        Path gcLog = output.resolve("gc-" + scenario + ".log");
+        Files.deleteIfExists(gcLog);
+
+        try (McpStdioClient client = new McpStdioClient(serverCommand(gcLog), output.resolve("server-" + scenario + ".log"))) {
+            Instant serverStart = client.getStartTime();
+            long startupBegin = System.nanoTime();
+            client.initialize(TimeUnit.MINUTES.toMillis(2));
+            long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startupBegin);
+            prepareServer(client, redis);
+
+            LatencyHistogram latency = new LatencyHistogram();
+            LongAdder errors = new LongAdder();
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+            Instant measureStart = Instant.now().plusSeconds(warmupSeconds);
+
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Thread worker = new Thread(() -> work(client, operations, warmupEnd, end, latency, errors),
+                        "loadtest-" + scenario + "-" + i);
+                worker.start();
+                workers.add(worker);
+            }
+            HeapSampler heapSampler = new HeapSampler(client, warmupEnd, heapSampleMillis);
+            Thread sampler = new Thread(heapSampler, "loadtest-" + scenario + "-heap");
+            sampler.start();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            // 计入统计的调用在end之前发起，可能在end之后才返回，吞吐按预热结束到最后一个调用返回的实际时间计算
+            long measuredNanos = System.nanoTime() - warmupEnd;
+            Instant measureEnd = Instant.now();
+            heapSampler.stop();
+            sampler.join();
+
+            JsonNode serverMetrics = client.toolData(
+                    client.callTool("getServerMetrics", Map.of()).get(30, TimeUnit.SECONDS));
+
+            long calls = latency.getCount();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("scenario", scenario);
+            result.put("startupMillis", startupMillis);
+            result.put("calls", calls);
+            result.put("errors", errors.sum());
+            result.put("errorRate", calls == 0 ? 0 : (double) errors.sum() / calls);
+            result.put("measuredMillis", TimeUnit.NANOSECONDS.toMillis(measuredNanos));
+            result.put("throughput", calls / (measuredNanos / 1e9));
+            Map<String, Object> latencyData = new LinkedHashMap<>();
+            latencyData.put("mean", latency.getMeanMillis());
+            latencyData.put("p50", latency.getPercentileMillis(50));
+            latencyData.put("p99", latency.getPercentileMillis(99));
+            latencyData.put("p999", latency.getPercentileMillis(99.9));
+            latencyData.put("max", latency.getMaxMillis());
+            result.put("latencyMillis", latencyData);
+            result.put("heap", heapSampler.summary());
+            // 关闭服务端，保证GC日志写完整后再统计
+            client.close();
+            result.put("gc", summarizeGc(gcLog,
+                    Duration.between(serverStart, measureStart).toMillis(),
+                    Duration.between(serverStart, measureEnd).toMillis()));
+            result.put("serverMetrics", serverMetrics);
+            return result;
+        }
+    }
+
+    /**
+     * 闭环压测：每个线程同步等待上一次调用返回后再发起下一次，预热阶段不计入统计
+     */
+    private void work(McpStdioClient client, List<Operation> operations, long warmupEnd, long end,
+                      LatencyHistogram latency, LongAdder errors) {
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = pick(operations, random.nextInt(totalWeight));
+            boolean success;
+            try {
+                JsonNode response = client.callTool(operation.tool(), operation.arguments().apply(random))
+                        .get(60, TimeUnit.SECONDS);
+                success = client.toolCode(response) == Code.SUCCESS.getCode();
+            } catch (Exception e) {
+                success = false;
+            }
+            if (now >= warmupEnd) {
+                latency.recordNanos(System.nanoTime() - now);
+                if (!success) {
+                    errors.increment();
+                }
+            }
+        }
+    }
+
+    private static Operation pick(List<Operation> operations, int value) {
+        for (Operation operation : operations) {
+            value -= operation.weight();
+            if (value < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private List<Operation> operations(String scenario) {
+        Operation tables = new Operation("getAllTableNames", 1, random -> Map.of());
+        Operation structure = new Operation("getTableStructure", 3, random -> Map.of("tableName", "ORDERS"));
+        Operation largeSelect = new Operation("executeSQL", 1,
+                random -> Map.of("sql", "SELECT * FROM ORDERS LIMIT " + rows));
+        Operation pointSelect = new Operation("executeSQL", 3,
+                random -> Map.of("sql", "SELECT * FROM ORDERS WHERE ID = " + (random.nextInt(rows) + 1)));
+        Operation redisGet = new Operation("getStringValue", 4,
+                random -> Map.of("key", "loadtest:string:" + random.nextInt(REDIS_KEYS)));
+        Operation redisSet = new Operation("setStringValue", 2, random -> Map.of(
+                "key", "loadtest:string:" + random.nextInt(REDIS_KEYS),
+                "value", "value-" + random.nextInt(),
+                "expireSeconds", 3600));
+        Operation redisHash = new Operation("executeCommand", 1, random -> Map.of("command", "HGETALL loadtest:hash"));
+
+        return switch (scenario) {
+            case "schema" -> List.of(tables, structure);
+            case "large-select" -> List.of(largeSelect);
+            case "redis" -> List.of(redisGet, redisSet, redisHash);
+            case "mixed" -> List.of(tables, structure, largeSelect, pointSelect, redisGet, redisSet, redisHash);
+            default -> throw new IllegalArgumentException("未知场景: " + scenario);
+        };
+    }
+
+    /**
+     * 通过工具调用初始化连接并准备表数据，与Agent的使用方式一致
+     */
+    private void prepareServer(McpStdioClient client, RespServerStub redis) throws Exception {
+        Map<String, Object> database = new LinkedHashMap<>();
+        database.put("url", H2_URL);
+        database.put("username", "sa");
+        database.put("password", "");
+        expectSuccess(client, "initDatabaseConnection", database);
+
+        expectSuccess(client, "executeSQL", Map.of("sql",
+                "CREATE TABLE IF NOT EXISTS ORDERS (ID BIGINT PRIMARY KEY, CUSTOMER VARCHAR(64), "
+                        + "AMOUNT DECIMAL(12, 2), STATUS VARCHAR(16), CREATED_AT TIMESTAMP)"));
+        expectSuccess(client, "executeSQL", Map.of("sql",
+                "INSERT INTO ORDERS SELECT X, CONCAT('customer_', MOD(X, 100)), X * 1.25, "
+                        + "CASE MOD(X, 3) WHEN 0 THEN 'PAID' WHEN 1 THEN 'SHIPPED' ELSE 'NEW' END, "
+                        + "TIMESTAMP '2024-01-01 00:00:00' + X * INTERVAL '1' MINUTE FROM SYSTEM_RANGE(1, " + rows + ")"));
+
+        Map<String, Object> redisArgs = new LinkedHashMap<>();
+        redisArgs.put("host", redis.getHost());
+        redisArgs.put("port", redis.getPort());
+        redisArgs.put("password", "");
+        expectSuccess(client, "initRedisConnection", redisArgs);
+    }
+
+    private void expectSuccess(McpStdioClient client, String tool, Map<String, Object> arguments) throws Exception {
+        JsonNode response = client.callTool(tool, arguments).get(60, TimeUnit.SECONDS);
+        if (client.toolCode(response) != Code.SUCCESS.getCode()) {
+            throw new IllegalStateException(tool + " 调用失败: " + response);
+        }
+    }
+
+    private static void seedRedis(RespServerStub redis) {
+        try (Jedis jedis = new Jedis(redis.getHost(), redis.getPort())) {
+            Pipeline pipeline = jedis.pipelined();
+            for (int i = 0; i < REDIS_KEYS; i++) {
+                pipeline.set("loadtest:string:" + i, "value-" + i);
+            }
+            Map<String, String> hash = new LinkedHashMap<>();
+            for (int i = 0; i < 50; i++) {
+                hash.put("field" + i, "value" + i);
+            }
+            pipeline.hset("loadtest:hash", hash);
+            pipeline.sync();
+        }
+    }
+
+    private List<String> serverCommand(Path gcLog) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : serverJvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        command.add("-Xlog:gc:file=" + gcLog.toAbsolutePath() + ":uptimemillis");
+        command.add("-Dspring.ai.mcp.server.stdio=true");
+        command.add("-Dspring.main.web-application-type=none");
+        command.add("-Dlogging.pattern.console=");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(DbMcpDemoApplication.class.getName());
+        return command;
+    }
+
+    /**
+     * 从GC日志统计压测阶段的停顿，startMillis/endMillis为服务端JVM运行时间。
+     * maxHeapAfterGcMb只在发生过GC时有意义，堆使用以HeapSampler的采样为准
+     */
+    private static Map<String, Object> summarizeGc(Path gcLog, long startMillis, long endMillis) throws IOException {
+        long pauses = 0;
+        double totalPauseMillis = 0;
+        double maxPauseMillis = 0;
+        long maxHeapAfterMb = 0;
+        if (Files.exists(gcLog)) {
+            for (String line : Files.readAllLines(gcLog)) {
+                Matcher matcher = GC_PAUSE.matcher(line);
+                if (!matcher.find()) {
+                    continue;
+                }
+                long uptime = Long.parseLong(matcher.group(1));
+                if (uptime < startMillis || uptime > endMillis) {
+                    continue;
+                }
+                double pauseMillis = Double.parseDouble(matcher.group(5));
+                pauses++;
+                totalPauseMillis += pauseMillis;
+                maxPauseMillis = Math.max(maxPauseMillis, pauseMillis);
+                maxHeapAfterMb = Math.max(maxHeapAfterMb, Long.parseLong(matcher.group(3)));
+            }
+        }
+
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("pauses", pauses);
+        gc.put("totalPauseMillis", totalPauseMillis);
+        gc.put("maxPauseMillis", maxPauseMillis);
+        gc.put("maxHeapAfterGcMb", maxHeapAfterMb);
+        return gc;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean check(Map<String, Object> result) {
+        double p99 = (double) ((Map<String, Object>) result.get("latencyMillis")).get("p99");
+        double throughput = (double) result.get("throughput");
+        double errorRate = (double) result.get("errorRate");
+        List<String> failures = new ArrayList<>();
+        if (maxP99Millis > 0 && p99 > maxP99Millis) {
+            failures.add(String.format("p99 %.2fms > %.2fms", p99, maxP99Millis));
+        }
+        if (minThroughput > 0 && throughput < minThroughput) {
+            failures.add(String.format("吞吐 %.1f/s < %.1f/s", throughput, minThroughput));
+        }
+        if (errorRate > maxErrorRate) {
+            failures.add(String.format("错误率 %.4f > %.4f", errorRate, maxErrorRate));
+        }
+        result.put("failures", failures);
+        return failures.isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void printReport(List<Map<String, Object>> results) {
+        System.out.printf("%-14s %9s %7s %10s %9s %9s %9s %9s %7s %10s %9s %s%n",
+                "scenario", "calls", "errors", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)",
+                "gc", "gcMax(ms)", "heap(MB)", "result");
+        for (Map<String, Object> result : results) {
+            Map<String, Object> latency = (Map<String, Object>) result.get("latencyMillis");
+            Map<String, Object> gc = (Map<String, Object>) result.get("gc");
+            Map<String, Object> heap = (Map<String, Object>) result.get("heap");
+            List<String> failures = (List<String>) result.get("failures");
+            System.out.printf("%-14s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %7d %10.2f %9.1f %s%n",
+                    result.get("scenario"), result.get("calls"), result.get("errors"), result.get("throughput"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p999"), latency.get("max"),
+                    gc.get("pauses"), gc.get("maxPauseMillis"), heap.get("maxUsedMb"),
+                    failures.isEmpty() ? "PASS" : "FAIL " + failures);
+        }
+    }
+
+    /**
+     * 压测阶段定期调用getServerMetrics读取服务端MemoryMXBean的堆使用，不依赖压测期间是否发生GC
+     */
+    private static class HeapSampler implements Runnable {
+
+        private final McpStdioClient client;
+        private final long startNanos;
+        private final long intervalMillis;
+        private volatile boolean running = true;
+        private int samples;
+        private int failures;
+        private double sumUsedMb;
+        private double maxUsedMb;
+        private double maxCommittedMb;
+
+        HeapSampler(McpStdioClient client, long startNanos, long intervalMillis) {
+            this.client = client;
+            this.startNanos = startNanos;
+            this.intervalMillis = Math.max(1, intervalMillis);
+        }
+
+        @Override
+        public void run() {
+            try {
+                long waitNanos = startNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                }
+                while (running) {
+                    sample();
+                    TimeUnit.MILLISECONDS.sleep(intervalMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void sample() {
+            try {
+                JsonNode heap = client.toolData(
+                        client.callTool("getServerMetrics", Map.of()).get(30, TimeUnit.SECONDS)).path("heap");
+                double usedMb = heap.path("usedMb").asDouble();
+                synchronized (this) {
+                    samples++;
+                    sumUsedMb += usedMb;
+                    maxUsedMb = Math.max(maxUsedMb, usedMb);
+                    maxCommittedMb = Math.max(maxCommittedMb, heap.path("committedMb").asDouble());
+                }
+            } catch (Exception e) {
+                synchronized (this) {
+                    failures++;
+                }
+            }
+        }
+
+        void stop() {
+            running = false;
+        }
+
+        synchronized Map<String, Object> summary() {
+            Map<String, Object> heap = new LinkedHashMap<>();
+            heap.put("samples", samples);
+            heap.put("failedSamples", failures);
+            heap.put("avgUsedMb", samples == 0 ? 0.0 : sumUsedMb / samples);
+            heap.put("maxUsedMb", maxUsedMb);
+            heap.put("maxCommittedMb", maxCommittedMb);
+            return heap;
+        }
+    }
+
+    private record Operation(String tool, int weight, Function<ThreadLocalRandom, Map<String, Object>> arguments) {
+    }
+}
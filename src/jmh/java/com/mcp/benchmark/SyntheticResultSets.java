@@ -0,0 +1,110 @@
+package com.mcp.benchmark;
+
+import org.h2.tools.SimpleResultSet;
+import org.h2.tools.SimpleRowSource;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Random;
+
+/**
+ * @Description 内存中的合成结果集，基于H2的SimpleResultSet直接读取预先生成的行数组，
+ *              每个单元格的读取只是一次数组访问，不引入动态代理的反射分派和装箱开销，
+ *              数据用固定随机种子生成，保证每次运行结果可复现
+ */
+public final class SyntheticResultSets {
+
+    private static final String[] TYPE_NAMES = {"BIGINT", "VARCHAR", "DECIMAL", "DATETIME"};
+    private static final int[] SQL_TYPES = {Types.BIGINT, Types.VARCHAR, Types.DECIMAL, Types.TIMESTAMP};
+
+    private SyntheticResultSets() {
+    }
+
+    /**
+     * 生成预先计算好的查询结果数据，按列依次为BIGINT、VARCHAR、DECIMAL、DATETIME循环
+     */
+    public static Object[][] queryRows(int rows, int columns) {
+        Random random = new Random(42);
+        Object[][] data = new Object[rows][columns];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < columns; c++) {
+                data[r][c] = switch (c % TYPE_NAMES.length) {
+                    case 0 -> (long) r * columns + c;
+                    case 1 -> "value_" + Integer.toHexString(random.nextInt());
+                    case 2 -> BigDecimal.valueOf(random.nextInt(1_000_000), 2);
+                    default -> new Timestamp(1_700_000_000_000L + random.nextInt(1_000_000_000));
+                };
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 把数据包装为可前向遍历的结果集，列名为col_1..col_n
+     */
+    public static ResultSet queryResult(Object[][] data, int columns) {
+        String[] names = new String[columns];
+        int[] types = new int[columns];
+        for (int c = 0; c < columns; c++) {
+            names[c] = "col_" + (c + 1);
+            types[c] = SQL_TYPES[c % SQL_TYPES.length];
+        }
+        return resultSet(data, names, types);
+    }
+
+    /**
+     * 生成与DatabaseMetaData.getColumns结构一致的结果集
+     */
+    public static Object[][] columnRows(int columns) {
+        Object[][] data = new Object[columns][4];
+        for (int c = 0; c < columns; c++) {
+            data[c][0] = "col_" + (c + 1);
+            data[c][1] = TYPE_NAMES[c % TYPE_NAMES.length];
+            data[c][2] = 10 + c % 245;
+            data[c][3] = c % 3 == 0 ? 0 : 1;
+        }
+        return data;
+    }
+
+    public static ResultSet columnsResult(Object[][] data) {
+        return resultSet(data, new String[]{"COLUMN_NAME", "TYPE_NAME", "COLUMN_SIZE", "NULLABLE"},
+                new int[]{Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.INTEGER});
+    }
+
+    private static ResultSet resultSet(Object[][] data, String[] names, int[] types) {
+        SimpleResultSet resultSet = new SimpleResultSet(new ArrayRowSource(data));
+        for (int c = 0; c < names.length; c++) {
+            resultSet.addColumn(names[c], types[c], 0, 0);
+        }
+        return resultSet;
+    }
+
+    /**
+     * 直接返回预先生成的行数组，不复制数据
+     */
+    private static final class ArrayRowSource implements SimpleRowSource {
+
+        private final Object[][] data;
+        private int cursor;
+
+        private ArrayRowSource(Object[][] data) {
+            this.data = data;
+        }
+
+        @Override
+        public Object[] readRow() {
+            return cursor < data.length ? data[cursor++] : null;
+        }
+
+        @Override
+        public void reset() {
+            cursor = 0;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.mcp.service;
+
+import com.mcp.benchmark.RespServerStub;
+import com.mcp.config.MetricsProperties;
+import com.mcp.config.RedisDumpProperties;
+import com.mcp.config.RedisPoolProperties;
+import com.mcp.metrics.ToolMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * executeCommand解析命令、分发到Jedis并序列化结果的耗时，Redis由进程内的RespServerStub代替
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteCommandBenchmark {
+
+    @Param({
+            "GET bench:string",
+            "SET bench:string value EX 600",
+            "HGETALL bench:hash",
+            "LRANGE bench:list 0 99",
+            "UNSUPPORTED bench:string"
+    })
+    private String command;
+
+    private RespServerStub server;
+    private RedisDBService redisDBService;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        server = new RespServerStub();
+        redisDBService = new RedisDBService(new RedisPoolProperties(), new RedisDumpProperties(), new ToolMetrics(new MetricsProperties()));
+        String init = redisDBService.initRedisConnection(server.getHost(), server.getPort(), null,
+                null, null, null, null, null, null);
+        if (!init.contains("\"code\":200")) {
+            throw new IllegalStateException(init);
+        }
+
+        redisDBService.executeCommand("SET bench:string value");
+        StringBuilder hset = new StringBuilder("HSET bench:hash");
+        StringBuilder rpush = new StringBuilder("RPUSH bench:list");
+        for (int i = 0; i < 100; i++) {
+            hset.append(" field").append(i).append(" value").append(i);
+            rpush.append(" item").append(i);
+        }
+        redisDBService.executeCommand(hset.toString());
+        redisDBService.executeCommand(rpush.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Benchmark
+    public String executeCommand() {
+        return redisDBService.executeCommand(command);
+    }
+}
@@ -0,0 +1,62 @@
+package com.mcp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.benchmark.SyntheticResultSets;
+import com.mcp.entity.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * executeSQL中结果集转换为Map再序列化为JSON的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecuteSqlMappingBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int rows;
+
+    @Param({"4", "16", "64"})
+    private int columns;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Object[][] data;
+
+    @Setup
+    public void setup() {
+        data = SyntheticResultSets.queryRows(rows, columns);
+    }
+
+    @Benchmark
+    public Map<String, Object> mapResultSet() throws Exception {
+        Map<String, Object> resultData = new HashMap<>();
+        MysqlDBService.readQueryResult(SyntheticResultSets.queryResult(data, columns), resultData);
+        return resultData;
+    }
+
+    @Benchmark
+    public String mapResultSetToJson() throws Exception {
+        Map<String, Object> resultData = new HashMap<>();
+        resultData.put("sql", "select * from benchmark");
+        MysqlDBService.readQueryResult(SyntheticResultSets.queryResult(data, columns), resultData);
+        resultData.put("type", "query");
+        return objectMapper.writeValueAsString(Response.ok(resultData));
+    }
+}
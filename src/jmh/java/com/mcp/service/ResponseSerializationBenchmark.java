@@ -0,0 +1,65 @@
+package com.mcp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.benchmark.SyntheticResultSets;
+import com.mcp.contant.Code;
+import com.mcp.entity.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用共享的ObjectMapper序列化Response的耗时，数据已提前准备好，只测序列化
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int rows;
+
+    @Param({"8"})
+    private int columns;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Response<Map<String, Object>> response;
+
+    @Setup
+    public void setup() throws Exception {
+        Map<String, Object> resultData = new HashMap<>();
+        MysqlDBService.readQueryResult(
+                SyntheticResultSets.queryResult(SyntheticResultSets.queryRows(rows, columns), columns), resultData);
+        response = Response.ok(resultData);
+    }
+
+    @Benchmark
+    public String serializeOk() throws Exception {
+        return objectMapper.writeValueAsString(response);
+    }
+
+    @Benchmark
+    public String serializeError() throws Exception {
+        return objectMapper.writeValueAsString(Response.error(Code.SQL_EXECUTION_ERROR));
+    }
+
+    @Benchmark
+    public byte[] serializeOkToBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
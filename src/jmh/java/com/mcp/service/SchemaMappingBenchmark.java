@@ -0,0 +1,45 @@
+package com.mcp.service;
+
+import com.mcp.benchmark.SyntheticResultSets;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * getTableStructure中列元数据转换的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchemaMappingBenchmark {
+
+    @Param({"8", "64", "512"})
+    private int columns;
+
+    private Object[][] data;
+
+    @Setup
+    public void setup() {
+        data = SyntheticResultSets.columnRows(columns);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> mapColumns() throws Exception {
+        return MysqlDBService.readColumns(SyntheticResultSets.columnsResult(data));
+    }
+}
@@ -1,7 +1,11 @@
 package com.mcp;
 
+import com.mcp.metrics.MeteredToolCallback;
+import com.mcp.metrics.ToolMetrics;
 import com.mcp.service.MysqlDBService;
 import com.mcp.service.RedisDBService;
+import com.mcp.service.ServerMetricsService;
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
 import org.springframework.boot.SpringApplication;
@@ -17,7 +21,18 @@ public class DbMcpDemoApplication {
 
 
     @Bean
-    public ToolCallbackProvider dbTools(MysqlDBService mysqlDBService, RedisDBService redisDBService) {
-        return MethodToolCallbackProvider.builder().toolObjects(mysqlDBService, redisDBService).build();
+    public ToolCallbackProvider dbTools(MysqlDBService mysqlDBService, RedisDBService redisDBService,
+                                        ServerMetricsService serverMetricsService, ToolMetrics toolMetrics) {
+        ToolCallback[] toolCallbacks = MethodToolCallbackProvider.builder()
+                .toolObjects(mysqlDBService, redisDBService, serverMetricsService)
+                .build()
+                .getToolCallbacks();
+
+        // 每个工具都包一层指标统计
+        ToolCallback[] meteredCallbacks = new ToolCallback[toolCallbacks.length];
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            meteredCallbacks[i] = new MeteredToolCallback(toolCallbacks[i], toolMetrics);
+        }
+        return ToolCallbackProvider.from(meteredCallbacks);
     }
 }
@@ -0,0 +1,70 @@
+package com.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @Description 工具调用指标配置，对应application.properties中的mcp.metrics.*
+ */
+@Component
+@ConfigurationProperties(prefix = "mcp.metrics")
+public class MetricsProperties {
+
+    // 是否统计工具调用指标
+    private boolean enabled = true;
+
+    // 慢操作阈值（毫秒），超过时记录慢操作日志，小于等于0表示不记录
+    private long slowThresholdMillis = 1000;
+
+    // 按工具名单独配置的慢操作阈值（毫秒），如 mcp.metrics.slow-thresholds.executeSQL=3000
+    private Map<String, Long> slowThresholds = new HashMap<>();
+
+    // 指标快照JSON文件路径，为空时不写文件
+    private String snapshotFile;
+
+    // 写指标快照文件的间隔（毫秒）
+    private long snapshotIntervalMillis = 60000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSlowThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    public void setSlowThresholdMillis(long slowThresholdMillis) {
+        this.slowThresholdMillis = slowThresholdMillis;
+    }
+
+    public Map<String, Long> getSlowThresholds() {
+        return slowThresholds;
+    }
+
+    public void setSlowThresholds(Map<String, Long> slowThresholds) {
+        this.slowThresholds = slowThresholds;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public long getSnapshotIntervalMillis() {
+        return snapshotIntervalMillis;
+    }
+
+    public void setSnapshotIntervalMillis(long snapshotIntervalMillis) {
+        this.snapshotIntervalMillis = snapshotIntervalMillis;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description Redis导出导入配置，对应application.properties中的mcp.redis.dump-dir，
+ *              exportKeys/importKeys的文件路径都相对于该目录解析，不能指向目录之外
+ */
+@Component
+@ConfigurationProperties(prefix = "mcp.redis")
+public class RedisDumpProperties {
+
+    // 导出导入文件所在目录，相对路径按服务端工作目录解析
+    private String dumpDir = "redis-dumps";
+
+    public String getDumpDir() {
+        return dumpDir;
+    }
+
+    public void setDumpDir(String dumpDir) {
+        this.dumpDir = dumpDir;
+    }
+}
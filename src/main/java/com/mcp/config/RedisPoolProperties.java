@@ -0,0 +1,145 @@
+package com.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description Redis连接池配置，对应application.properties中的mcp.redis.pool.*，
+ *              initRedisConnection传入的参数会覆盖这里的默认值
+ */
+@Component
+@ConfigurationProperties(prefix = "mcp.redis.pool")
+public class RedisPoolProperties {
+
+    // 最大连接数
+    private int maxTotal = 32;
+
+    // 最大空闲连接数
+    private int maxIdle = 16;
+
+    // 最小空闲连接数，初始化时会预先建立这么多连接
+    private int minIdle = 4;
+
+    // 连接池耗尽时获取连接的最大等待时间（毫秒）
+    private long maxWaitMillis = 2000;
+
+    // 建立连接超时时间（毫秒）
+    private int connectionTimeout = 2000;
+
+    // 读写超时时间（毫秒）
+    private int soTimeout = 2000;
+
+    // 借出连接时是否PING校验，默认关闭，由后台空闲检测代替
+    private boolean testOnBorrow = false;
+
+    // 归还连接时是否PING校验
+    private boolean testOnReturn = false;
+
+    // 后台空闲检测时是否PING校验
+    private boolean testWhileIdle = true;
+
+    // 后台空闲检测间隔（毫秒）
+    private long timeBetweenEvictionRunsMillis = 30000;
+
+    // 连接空闲多久后可被回收（毫秒）
+    private long minEvictableIdleTimeMillis = 60000;
+
+    // 每次后台检测的连接数，负数表示按比例检测
+    private int numTestsPerEvictionRun = -1;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    public void setMaxWaitMillis(long maxWaitMillis) {
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public int getSoTimeout() {
+        return soTimeout;
+    }
+
+    public void setSoTimeout(int soTimeout) {
+        this.soTimeout = soTimeout;
+    }
+
+    public boolean isTestOnBorrow() {
+        return testOnBorrow;
+    }
+
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+    }
+
+    public boolean isTestOnReturn() {
+        return testOnReturn;
+    }
+
+    public void setTestOnReturn(boolean testOnReturn) {
+        this.testOnReturn = testOnReturn;
+    }
+
+    public boolean isTestWhileIdle() {
+        return testWhileIdle;
+    }
+
+    public void setTestWhileIdle(boolean testWhileIdle) {
+        this.testWhileIdle = testWhileIdle;
+    }
+
+    public long getTimeBetweenEvictionRunsMillis() {
+        return timeBetweenEvictionRunsMillis;
+    }
+
+    public void setTimeBetweenEvictionRunsMillis(long timeBetweenEvictionRunsMillis) {
+        this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+    }
+
+    public long getMinEvictableIdleTimeMillis() {
+        return minEvictableIdleTimeMillis;
+    }
+
+    public void setMinEvictableIdleTimeMillis(long minEvictableIdleTimeMillis) {
+        this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+    }
+
+    public int getNumTestsPerEvictionRun() {
+        return numTestsPerEvictionRun;
+    }
+
+    public void setNumTestsPerEvictionRun(int numTestsPerEvictionRun) {
+        this.numTestsPerEvictionRun = numTestsPerEvictionRun;
+    }
+}
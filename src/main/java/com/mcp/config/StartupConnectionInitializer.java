@@ -0,0 +1,63 @@
+package com.mcp.config;
+
+import com.mcp.service.MysqlDBService;
+import com.mcp.service.RedisDBService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description 服务启动完成后按mcp.startup.*配置初始化连接，省去Agent每个会话先调用初始化工具的往返
+ */
+@Component
+public class StartupConnectionInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupConnectionInitializer.class);
+
+    private final StartupProperties properties;
+    private final MysqlDBService mysqlDBService;
+    private final RedisDBService redisDBService;
+
+    public StartupConnectionInitializer(StartupProperties properties, MysqlDBService mysqlDBService,
+                                        RedisDBService redisDBService) {
+        this.properties = properties;
+        this.mysqlDBService = mysqlDBService;
+        this.redisDBService = redisDBService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!hasText(properties.getMysql().getUrl()) && !hasText(properties.getRedis().getHost())) {
+            return;
+        }
+        if (properties.isAsync()) {
+            Thread thread = new Thread(this::initConnections, "startup-connection-init");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            initConnections();
+        }
+    }
+
+    private void initConnections() {
+        StartupProperties.Mysql mysql = properties.getMysql();
+        if (hasText(mysql.getUrl())) {
+            String result = mysqlDBService.initDatabaseConnection(
+                    null, mysql.getUrl(), mysql.getUsername(), mysql.getPassword());
+            log.info("启动时初始化数据库连接: {}", result);
+        }
+
+        StartupProperties.Redis redis = properties.getRedis();
+        if (hasText(redis.getHost())) {
+            String result = redisDBService.initRedisConnection(redis.getHost(), redis.getPort(), redis.getPassword(),
+                    null, null, null, null, null, null);
+            log.info("启动时初始化Redis连接: {}", result);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
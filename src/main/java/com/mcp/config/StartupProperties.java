@@ -0,0 +1,108 @@
+package com.mcp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @Description 启动时按配置预先初始化数据库和Redis连接，对应application.properties中的mcp.startup.*，
+ *              未配置url/host时不初始化，仍由Agent调用初始化工具
+ */
+@Component
+@ConfigurationProperties(prefix = "mcp.startup")
+public class StartupProperties {
+
+    // 是否在后台线程初始化，不阻塞MCP服务响应第一个请求
+    private boolean async = true;
+
+    private final Mysql mysql = new Mysql();
+
+    private final Redis redis = new Redis();
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public Mysql getMysql() {
+        return mysql;
+    }
+
+    public Redis getRedis() {
+        return redis;
+    }
+
+    public static class Mysql {
+
+        // 数据库URL，为空时不初始化
+        private String url;
+
+        // 数据库用户名
+        private String username;
+
+        // 数据库密码
+        private String password;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+
+    public static class Redis {
+
+        // Redis主机地址，为空时不初始化
+        private String host;
+
+        // Redis端口
+        private int port = 6379;
+
+        // Redis密码
+        private String password;
+
+        public String getHost() {
+            return host;
+        }
+
+        public void setHost(String host) {
+            this.host = host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
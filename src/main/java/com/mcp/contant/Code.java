@@ -11,7 +11,11 @@ public enum Code {
     TABLE_NOT_FOUND(5004, "表不存在或没有列信息"), 
     TABLE_QUERY_ERROR(5005, "查询表结构失败"),
     TABLE_NAMES_QUERY_ERROR(5006, "查询表名失败"),
-    NO_TABLES_FOUND(5007, "数据库中没有找到任何表")
+    NO_TABLES_FOUND(5007, "数据库中没有找到任何表"),
+    SCRIPT_NOT_FOUND(5008, "Lua脚本未注册，请先调用注册脚本方法"),
+    SCRIPT_EXECUTION_ERROR(5009, "Lua脚本执行失败"),
+    EXPORT_ERROR(5010, "导出Redis数据失败"),
+    IMPORT_ERROR(5011, "导入Redis数据失败")
     ;
 
 
@@ -56,4 +56,8 @@ public class Response<T> implements Serializable {
     public static <T> Response<T> error(Code code) {
         return generateResponse(code.getCode(), code.getMessage(), null);
     }
+
+    public static <T> Response<T> error(Code code, T data) {
+        return generateResponse(code.getCode(), code.getMessage(), data);
+    }
 }
@@ -0,0 +1,53 @@
+package com.mcp.metrics;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+/**
+ * @Description 包装工具回调，记录每次调用的耗时和返回结果
+ */
+public class MeteredToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolMetrics toolMetrics;
+    private final String name;
+
+    public MeteredToolCallback(ToolCallback delegate, ToolMetrics toolMetrics) {
+        this.delegate = delegate;
+        this.toolMetrics = toolMetrics;
+        this.name = delegate.getToolDefinition().name();
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return call(toolInput, null);
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        if (!toolMetrics.isEnabled()) {
+            return delegate.call(toolInput, toolContext);
+        }
+
+        long start = System.nanoTime();
+        String result = null;
+        try {
+            result = delegate.call(toolInput, toolContext);
+            return result;
+        } finally {
+            toolMetrics.recordCall(name, System.nanoTime() - start, result);
+        }
+    }
+}
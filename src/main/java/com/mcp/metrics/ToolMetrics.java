@@ -0,0 +1,237 @@
+package com.mcp.metrics;
+
+import com.mcp.config.MetricsProperties;
+import com.mcp.contant.Code;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Description 工具调用指标：调用次数、按错误码统计的失败次数、延迟分布、返回字节数、返回行数、连接池等待时间、新建连接耗时以及当前堆内存使用
+ */
+@Component
+public class ToolMetrics {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("com.mcp.slow");
+
+    private final MetricsProperties properties;
+    private final long startTime = System.currentTimeMillis();
+    private final Map<String, ToolStats> tools = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> poolWaits = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> connectionAcquires = new ConcurrentHashMap<>();
+
+    public ToolMetrics(MetricsProperties properties) {
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * 记录一次工具调用
+     *
+     * @param tool   工具名
+     * @param nanos  耗时（纳秒）
+     * @param result 工具返回的JSON，为null表示调用抛出了异常
+     */
+    public void recordCall(String tool, long nanos, String result) {
+        ToolStats stats = stats(tool);
+        stats.calls.increment();
+        stats.latency.recordNanos(nanos);
+
+        int code;
+        if (result == null) {
+            code = Code.ERROR.getCode();
+        } else {
+            stats.bytes.add(utf8Length(result));
+            code = extractCode(result);
+        }
+        if (code != Code.SUCCESS.getCode() && code != -1) {
+            stats.errors.increment();
+            stats.errorsByCode.computeIfAbsent(code, k -> new LongAdder()).increment();
+        }
+
+        long thresholdMillis = properties.getSlowThresholds().getOrDefault(tool, properties.getSlowThresholdMillis());
+        if (thresholdMillis > 0 && nanos >= TimeUnit.MILLISECONDS.toNanos(thresholdMillis)) {
+            stats.slowCalls.increment();
+            slowLog.warn("慢操作: tool={}, costMillis={}, code={}, thresholdMillis={}",
+                    tool, TimeUnit.NANOSECONDS.toMillis(nanos), code, thresholdMillis);
+        }
+    }
+
+    /**
+     * 记录工具返回的数据行数
+     */
+    public void recordRows(String tool, long rows) {
+        if (properties.isEnabled()) {
+            stats(tool).rows.add(rows);
+        }
+    }
+
+    /**
+     * 记录从连接池获取连接的等待时间
+     *
+     * @param pool  连接池名称，如redis
+     * @param nanos 等待时间（纳秒）
+     */
+    public void recordPoolWait(String pool, long nanos) {
+        if (properties.isEnabled()) {
+            poolWaits.computeIfAbsent(pool, k -> new LatencyHistogram()).recordNanos(nanos);
+        }
+    }
+
+    /**
+     * 记录不经过连接池、每次新建物理连接的耗时（TCP建连和认证握手），与连接池等待时间分开统计
+     *
+     * @param source 数据源名称，如mysql
+     * @param nanos  建立连接耗时（纳秒）
+     */
+    public void recordConnectionAcquire(String source, long nanos) {
+        if (properties.isEnabled()) {
+            connectionAcquires.computeIfAbsent(source, k -> new LatencyHistogram()).recordNanos(nanos);
+        }
+    }
+
+    /**
+     * 生成当前指标快照，可直接序列化为JSON
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> toolData = new TreeMap<>();
+        tools.forEach((name, stats) -> {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("calls", stats.calls.sum());
+            item.put("errors", stats.errors.sum());
+            Map<String, Long> errorsByCode = new TreeMap<>();
+            stats.errorsByCode.forEach((code, count) -> errorsByCode.put(codeName(code), count.sum()));
+            item.put("errorsByCode", errorsByCode);
+            item.put("slowCalls", stats.slowCalls.sum());
+            item.put("latencyMillis", latency(stats.latency));
+            item.put("bytes", stats.bytes.sum());
+            item.put("rows", stats.rows.sum());
+            toolData.put(name, item);
+        });
+
+        Map<String, Object> poolData = new TreeMap<>();
+        poolWaits.forEach((name, histogram) -> poolData.put(name, latency(histogram)));
+
+        Map<String, Object> connectionData = new TreeMap<>();
+        connectionAcquires.forEach((name, histogram) -> connectionData.put(name, latency(histogram)));
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("enabled", properties.isEnabled());
+        data.put("uptimeMillis", System.currentTimeMillis() - startTime);
+        data.put("tools", toolData);
+        data.put("poolWaitMillis", poolData);
+        data.put("connectionAcquireMillis", connectionData);
+        data.put("heap", heap());
+        return data;
+    }
+
+    /**
+     * 当前堆内存使用情况（MB），直接读取MemoryMXBean，不依赖GC是否发生
+     */
+    private static Map<String, Object> heap() {
+        MemoryUsage usage = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        Map<String, Object> item = new LinkedHashMap<>();
+        item.put("usedMb", toMb(usage.getUsed()));
+        item.put("committedMb", toMb(usage.getCommitted()));
+        item.put("maxMb", usage.getMax() < 0 ? -1 : toMb(usage.getMax()));
+        return item;
+    }
+
+    private static double toMb(long bytes) {
+        return Math.round(bytes / 1024.0 / 1024.0 * 10) / 10.0;
+    }
+
+    private ToolStats stats(String tool) {
+        return tools.computeIfAbsent(tool, k -> new ToolStats());
+    }
+
+    private static Map<String, Object> latency(LatencyHistogram histogram) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("count", histogram.getCount());
+        data.put("mean", histogram.getMeanMillis());
+        data.put("p50", histogram.getPercentileMillis(50));
+        data.put("p99", histogram.getPercentileMillis(99));
+        data.put("p999", histogram.getPercentileMillis(99.9));
+        data.put("max", histogram.getMaxMillis());
+        return data;
+    }
+
+    private static String codeName(int code) {
+        for (Code value : Code.values()) {
+            if (value.getCode() == code) {
+                return code + "_" + value.name();
+            }
+        }
+        return String.valueOf(code);
+    }
+
+    /**
+     * 从返回的JSON中取出code字段，Response序列化时code总在最前面，不需要完整解析。
+     * 工具返回值可能被再次序列化为JSON字符串，所以要跳过转义的引号
+     *
+     * @return 没有code字段时返回-1
+     */
+    static int extractCode(String result) {
+        int i = result.indexOf("code");
+        if (i < 0) {
+            return -1;
+        }
+        i += 4;
+        int limit = Math.min(result.length(), i + 8);
+        while (i < limit && !Character.isDigit(result.charAt(i))) {
+            i++;
+        }
+        if (i >= limit) {
+            return -1;
+        }
+        int code = 0;
+        while (i < result.length() && Character.isDigit(result.charAt(i))) {
+            code = code * 10 + (result.charAt(i) - '0');
+            i++;
+        }
+        return code;
+    }
+
+    /**
+     * 计算字符串UTF-8编码后的字节数，避免为统计再复制一份byte[]
+     */
+    static long utf8Length(String s) {
+        long length = 0;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private static class ToolStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> errorsByCode = new ConcurrentHashMap<>();
+        private final LongAdder slowCalls = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+    }
+}
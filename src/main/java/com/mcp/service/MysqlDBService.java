@@ -7,11 +7,14 @@ import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.entity.Response;
 import com.mcp.contant.Code;
+import com.mcp.metrics.ToolMetrics;
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -21,27 +24,40 @@ import java.util.Map;
 @Service
 public class MysqlDBService {
 
-    private MysqlDataSource mysqlDataSource;
+    private ConnectionProvider connectionProvider;
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ToolMetrics toolMetrics;
+
+    public MysqlDBService(ToolMetrics toolMetrics) {
+        this.toolMetrics = toolMetrics;
+    }
 
     @Tool(description = "初始化数据库连接")
     public String initDatabaseConnection(
-            @ToolParam(description = "数据库驱动类名") String driverClassName,
-            @ToolParam(description = "数据库URL") String url,
+            @ToolParam(description = "数据库驱动类名，已忽略：驱动按JDBC 4规范经ServiceLoader自动注册，不按传入的类名加载类", required = false) String driverClassName,
+            @ToolParam(description = "数据库URL，jdbc:mysql:开头的URL使用MySQL驱动连接，其他URL通过DriverManager交给已注册的JDBC驱动") String url,
             @ToolParam(description = "数据库用户名") String username,
             @ToolParam(description = "数据库密码") String password
     ) {
         try {
-            MysqlDataSource dataSource = new MysqlDataSource();
-            dataSource.setUrl(url);
-            dataSource.setUser(username);
-            dataSource.setPassword(password);
+            ConnectionProvider provider;
+            if (url.startsWith("jdbc:mysql:")) {
+                MysqlDataSource dataSource = new MysqlDataSource();
+                dataSource.setUrl(url);
+                dataSource.setUser(username);
+                dataSource.setPassword(password);
+                provider = dataSource::getConnection;
+            } else {
+                // 其他兼容MySQL语法的数据库（如压测用的H2 MySQL模式）通过DriverManager连接，
+                // 驱动按JDBC 4规范经ServiceLoader自动注册，不按传入的类名加载类
+                provider = () -> DriverManager.getConnection(url, username, password);
+            }
             
             // 测试连接
-            dataSource.getConnection().close();
+            provider.getConnection().close();
             
             // 设置数据源
-            this.mysqlDataSource = dataSource;
+            this.connectionProvider = provider;
             
             return objectMapper.writeValueAsString(Response.ok("数据库连接初始化成功"));
         } catch (Exception e) {
@@ -53,9 +69,21 @@ public class MysqlDBService {
         }
     }
     
+    /**
+     * 获取数据库连接，并记录建立连接的耗时。未使用连接池，每次都新建物理连接
+     */
+    private Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return connectionProvider.getConnection();
+        } finally {
+            toolMetrics.recordConnectionAcquire("mysql", System.nanoTime() - start);
+        }
+    }
+
     @Tool(description = "查询数据库中所有的表名")
     public String getAllTableNames() {
-        if (mysqlDataSource == null) {
+        if (connectionProvider == null) {
             try {
                 return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
             } catch (Exception e) {
@@ -68,7 +96,7 @@ public class MysqlDBService {
         ResultSet rs = null;
         
         try {
-            conn = mysqlDataSource.getConnection();
+            conn = getConnection();
             DatabaseMetaData metaData = conn.getMetaData();
             
             // 获取当前数据库的所有表
@@ -109,7 +137,7 @@ public class MysqlDBService {
     public String getTableStructure(
             @ToolParam(description = "表名") String tableName
     ) {
-        if (mysqlDataSource == null) {
+        if (connectionProvider == null) {
             try {
                 return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
             } catch (Exception e) {
@@ -121,7 +149,7 @@ public class MysqlDBService {
         ResultSet rs = null;
         
         try {
-            conn = mysqlDataSource.getConnection();
+            conn = getConnection();
             DatabaseMetaData metaData = conn.getMetaData();
             
             // 获取表的列信息
@@ -139,16 +167,7 @@ public class MysqlDBService {
             // 回到结果集的开始
             rs.beforeFirst();
             
-            List<Map<String, Object>> columns = new ArrayList<>();
-            
-            while (rs.next()) {
-                Map<String, Object> column = new HashMap<>();
-                column.put("name", rs.getString("COLUMN_NAME"));
-                column.put("type", rs.getString("TYPE_NAME"));
-                column.put("size", rs.getInt("COLUMN_SIZE"));
-                column.put("nullable", rs.getInt("NULLABLE") == 1);
-                columns.add(column);
-            }
+            List<Map<String, Object>> columns = readColumns(rs);
             
             // 获取主键信息
             ResultSet pkRs = metaData.getPrimaryKeys(conn.getCatalog(), null, tableName);
@@ -187,7 +206,7 @@ public class MysqlDBService {
     public String executeSQL(
             @ToolParam(description = "SQL语句") String sql
     ) {
-        if (mysqlDataSource == null) {
+        if (connectionProvider == null) {
             try {
                 return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
             } catch (Exception e) {
@@ -200,7 +219,7 @@ public class MysqlDBService {
         ResultSet rs = null;
         
         try {
-            conn = mysqlDataSource.getConnection();
+            conn = getConnection();
             stmt = conn.createStatement();
             
             Map<String, Object> resultData = new HashMap<>();
@@ -213,34 +232,9 @@ public class MysqlDBService {
                 rs = stmt.executeQuery(sql);
                 
                 // 获取结果集元数据
-                ResultSetMetaData metaData = rs.getMetaData();
-                int columnCount = metaData.getColumnCount();
-                
-                // 获取列名
-                List<String> columns = new ArrayList<>();
-                for (int i = 1; i <= columnCount; i++) {
-                    columns.add(metaData.getColumnName(i));
-                }
-                resultData.put("columns", columns);
-                
-                // 获取数据行
-                List<Map<String, Object>> dataList = new ArrayList<>();
-                int rowCount = 0;
-                
-                while (rs.next()) {
-                    rowCount++;
-                    Map<String, Object> row = new HashMap<>();
-                    for (int i = 1; i <= columnCount; i++) {
-                        String columnName = metaData.getColumnName(i);
-                        Object value = rs.getObject(i);
-                        row.put(columnName, value);
-                    }
-                    dataList.add(row);
-                }
-                
-                resultData.put("data", dataList);
-                resultData.put("rowCount", rowCount);
+                int rowCount = readQueryResult(rs, resultData);
                 resultData.put("type", "query");
+                toolMetrics.recordRows("executeSQL", rowCount);
             } else {
                 // 执行更新（INSERT, UPDATE, DELETE等）
                 int affectedRows = stmt.executeUpdate(sql);
@@ -266,4 +260,65 @@ public class MysqlDBService {
             }
         }
     }
+
+    /**
+     * 把查询结果集转换为列名列表和数据行，写入resultData的columns、data、rowCount
+     *
+     * @return 数据行数
+     */
+    static int readQueryResult(ResultSet rs, Map<String, Object> resultData) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int columnCount = metaData.getColumnCount();
+
+        // 获取列名，只取一次，避免每行每列都访问元数据
+        String[] columnNames = new String[columnCount];
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columnNames[i - 1] = metaData.getColumnName(i);
+            columns.add(columnNames[i - 1]);
+        }
+        resultData.put("columns", columns);
+
+        // 获取数据行
+        List<Map<String, Object>> dataList = new ArrayList<>();
+        int rowCount = 0;
+
+        while (rs.next()) {
+            rowCount++;
+            Map<String, Object> row = HashMap.newHashMap(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                row.put(columnNames[i - 1], rs.getObject(i));
+            }
+            dataList.add(row);
+        }
+
+        resultData.put("data", dataList);
+        resultData.put("rowCount", rowCount);
+        return rowCount;
+    }
+
+    /**
+     * 把DatabaseMetaData.getColumns返回的结果集转换为列信息
+     */
+    static List<Map<String, Object>> readColumns(ResultSet rs) throws SQLException {
+        List<Map<String, Object>> columns = new ArrayList<>();
+
+        while (rs.next()) {
+            Map<String, Object> column = new HashMap<>();
+            column.put("name", rs.getString("COLUMN_NAME"));
+            column.put("type", rs.getString("TYPE_NAME"));
+            column.put("size", rs.getInt("COLUMN_SIZE"));
+            column.put("nullable", rs.getInt("NULLABLE") == 1);
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * 获取数据库连接的方式
+     */
+    @FunctionalInterface
+    private interface ConnectionProvider {
+        Connection getConnection() throws SQLException;
+    }
 }
\ No newline at end of file
@@ -5,53 +5,126 @@ import org.springframework.ai.tool.annotation.ToolParam;
 import org.springframework.stereotype.Service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mcp.entity.Response;
+import com.mcp.config.RedisDumpProperties;
+import com.mcp.config.RedisPoolProperties;
 import com.mcp.contant.Code;
+import com.mcp.metrics.ToolMetrics;
 
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Protocol;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.exceptions.JedisNoScriptException;
+import redis.clients.jedis.params.RestoreParams;
+import redis.clients.jedis.params.ScanParams;
+import redis.clients.jedis.resps.ScanResult;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class RedisDBService {
 
-    private JedisPool jedisPool;
+    private volatile JedisPool jedisPool;
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private static final int DEFAULT_TIMEOUT = 2000; // 默认连接超时时间2000毫秒
+    private final RedisPoolProperties poolProperties;
+    private final RedisDumpProperties dumpProperties;
+    private final ToolMetrics toolMetrics;
+    // 连接池耗尽（获取连接等待超时）次数
+    private final AtomicLong exhaustedCount = new AtomicLong();
+    // 已注册的Lua脚本，脚本名称 -> 脚本
+    private final Map<String, LuaScript> luaScripts = new ConcurrentHashMap<>();
 
-    @Tool(description = "初始化Redis连接")
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final int DEFAULT_IMPORT_PARALLELISM = 4;
+
+    public RedisDBService(RedisPoolProperties poolProperties, RedisDumpProperties dumpProperties, ToolMetrics toolMetrics) {
+        this.poolProperties = poolProperties;
+        this.dumpProperties = dumpProperties;
+        this.toolMetrics = toolMetrics;
+    }
+
+    @Tool(description = "初始化Redis连接，连接池参数不传时使用application.properties中的mcp.redis.pool配置")
     public String initRedisConnection(
             @ToolParam(description = "Redis主机地址") String host,
             @ToolParam(description = "Redis端口") int port,
-            @ToolParam(description = "Redis密码") String password
+            @ToolParam(description = "Redis密码") String password,
+            @ToolParam(description = "最大连接数", required = false) Integer maxTotal,
+            @ToolParam(description = "最大空闲连接数", required = false) Integer maxIdle,
+            @ToolParam(description = "最小空闲连接数（初始化时预热）", required = false) Integer minIdle,
+            @ToolParam(description = "连接池耗尽时获取连接的最大等待时间（毫秒）", required = false) Long maxWaitMillis,
+            @ToolParam(description = "连接及读写超时时间（毫秒）", required = false) Integer timeoutMillis,
+            @ToolParam(description = "借出连接时是否PING校验，默认由后台空闲检测代替", required = false) Boolean testOnBorrow
     ) {
+        JedisPool newPool = null;
         try {
             JedisPoolConfig poolConfig = new JedisPoolConfig();
-            poolConfig.setMaxTotal(10);
-            poolConfig.setMaxIdle(5);
-            poolConfig.setMinIdle(1);
-            poolConfig.setTestOnBorrow(true);
-            poolConfig.setTestOnReturn(true);
-            
+            poolConfig.setMaxTotal(maxTotal != null ? maxTotal : poolProperties.getMaxTotal());
+            poolConfig.setMaxIdle(maxIdle != null ? maxIdle : poolProperties.getMaxIdle());
+            poolConfig.setMinIdle(minIdle != null ? minIdle : poolProperties.getMinIdle());
+            poolConfig.setMaxWait(Duration.ofMillis(maxWaitMillis != null ? maxWaitMillis : poolProperties.getMaxWaitMillis()));
+            poolConfig.setBlockWhenExhausted(true);
+
+            // 校验放到后台空闲检测中，避免每次借出/归还都多一次PING
+            poolConfig.setTestOnBorrow(testOnBorrow != null ? testOnBorrow : poolProperties.isTestOnBorrow());
+            poolConfig.setTestOnReturn(poolProperties.isTestOnReturn());
+            poolConfig.setTestWhileIdle(poolProperties.isTestWhileIdle());
+            poolConfig.setTimeBetweenEvictionRuns(Duration.ofMillis(poolProperties.getTimeBetweenEvictionRunsMillis()));
+            poolConfig.setMinEvictableIdleDuration(Duration.ofMillis(poolProperties.getMinEvictableIdleTimeMillis()));
+            poolConfig.setNumTestsPerEvictionRun(poolProperties.getNumTestsPerEvictionRun());
+            poolConfig.setJmxEnabled(false);
+
+            int connectionTimeout = timeoutMillis != null ? timeoutMillis : poolProperties.getConnectionTimeout();
+            int soTimeout = timeoutMillis != null ? timeoutMillis : poolProperties.getSoTimeout();
+
             // 创建Jedis连接池
-            if (password != null && !password.isEmpty()) {
-                jedisPool = new JedisPool(poolConfig, host, port, DEFAULT_TIMEOUT, password);
-            } else {
-                jedisPool = new JedisPool(poolConfig, host, port);
-            }
-            
+            String auth = (password != null && !password.isEmpty()) ? password : null;
+            newPool = new JedisPool(poolConfig, host, port, connectionTimeout, soTimeout, auth, Protocol.DEFAULT_DATABASE, null);
+
+            // 预热连接，建立minIdle个连接
+            newPool.preparePool();
+
             // 测试连接
-            try (Jedis jedis = jedisPool.getResource()) {
+            try (Jedis jedis = newPool.getResource()) {
                 jedis.ping();
             }
-            
+
+            // 替换旧连接池
+            JedisPool oldPool = jedisPool;
+            jedisPool = newPool;
+            exhaustedCount.set(0);
+            if (oldPool != null) {
+                oldPool.close();
+            }
+
             return objectMapper.writeValueAsString(Response.ok("Redis连接初始化成功"));
         } catch (Exception e) {
+            if (newPool != null) {
+                newPool.close();
+            }
             try {
                 return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
             } catch (Exception ex) {
@@ -59,7 +132,73 @@ public class RedisDBService {
             }
         }
     }
+
+    @Tool(description = "获取Redis连接池状态，包括活跃/空闲连接数、借出等待时间和连接池耗尽次数")
+    public String getRedisPoolStats() {
+        if (jedisPool == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        try {
+            JedisPool pool = jedisPool;
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("maxTotal", pool.getMaxTotal());
+            stats.put("maxIdle", pool.getMaxIdle());
+            stats.put("minIdle", pool.getMinIdle());
+            stats.put("active", pool.getNumActive());
+            stats.put("idle", pool.getNumIdle());
+            stats.put("waiters", pool.getNumWaiters());
+            stats.put("created", pool.getCreatedCount());
+            stats.put("destroyed", pool.getDestroyedCount());
+            stats.put("destroyedByEvictor", pool.getDestroyedByEvictorCount());
+            stats.put("borrowed", pool.getBorrowedCount());
+            stats.put("meanBorrowWaitMillis", pool.getMeanBorrowWaitDuration().toMillis());
+            stats.put("maxBorrowWaitMillis", pool.getMaxBorrowWaitDuration().toMillis());
+            stats.put("exhausted", exhaustedCount.get());
+
+            return objectMapper.writeValueAsString(Response.ok(stats));
+        } catch (Exception e) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.ERROR));
+            } catch (Exception ex) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+    }
+
+    /**
+     * 从连接池借出连接并记录等待时间，连接池耗尽（等待超时）时记录一次耗尽事件
+     */
+    Jedis getResource() {
+        long start = System.nanoTime();
+        try {
+            return jedisPool.getResource();
+        } catch (JedisException e) {
+            if (isPoolExhausted(e)) {
+                exhaustedCount.incrementAndGet();
+            }
+            throw e;
+        } finally {
+            toolMetrics.recordPoolWait("redis", System.nanoTime() - start);
+        }
+    }
     
+    /**
+     * Jedis 4.x没有单独的耗尽异常，等待超时、借出时PING校验失败、激活失败都会包装成NoSuchElementException，
+     * 只有等待超时（或不阻塞时池已满）才算连接池耗尽
+     */
+    static boolean isPoolExhausted(JedisException e) {
+        if (!(e.getCause() instanceof NoSuchElementException cause) || cause.getMessage() == null) {
+            return false;
+        }
+        return cause.getMessage().startsWith("Timeout waiting for idle object")
+                || cause.getMessage().startsWith("Pool exhausted");
+    }
+
     @Tool(description = "获取所有Redis键")
     public String getAllKeys() {
         if (jedisPool == null) {
@@ -70,7 +209,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             Set<String> keySet = jedis.keys("*");
             List<String> keys = new ArrayList<>(keySet);
             
@@ -105,7 +244,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             // 检查键是否存在
             if (!jedis.exists(key)) {
                 try {
@@ -167,7 +306,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             Map<String, Object> resultData = new HashMap<>();
             resultData.put("command", command);
             
@@ -306,7 +445,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             String result = jedis.set(key, value);
             
             if (expireSeconds != null && expireSeconds > 0) {
@@ -344,7 +483,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             // 检查键是否存在
             if (!jedis.exists(key)) {
                 try {
@@ -384,7 +523,7 @@ public class RedisDBService {
             }
         }
         
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getResource()) {
             // 检查键是否存在
             if (!jedis.exists(key)) {
                 try {
@@ -410,4 +549,372 @@ public class RedisDBService {
             }
         }
     }
-} 
\ No newline at end of file
+
+    @Tool(description = "注册Lua脚本，脚本会通过SCRIPT LOAD缓存在Redis服务端，之后可按名称用EVALSHA单次往返执行。适用于检查并设置、限流计数、条件删除等需要原子执行的多步操作")
+    public String registerLuaScript(
+            @ToolParam(description = "脚本名称，用于之后执行") String name,
+            @ToolParam(description = "Lua脚本内容，通过KEYS[n]和ARGV[n]读取参数") String script,
+            @ToolParam(description = "是否为只读脚本，只读脚本使用EVALSHA_RO执行，Redis会拒绝其中的写命令（需要Redis 7.0+）。仍在当前连接的Redis上执行，不会路由到从节点", required = false) Boolean readOnly
+    ) {
+        if (jedisPool == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        try (Jedis jedis = getResource()) {
+            String sha = jedis.scriptLoad(script);
+            LuaScript luaScript = new LuaScript(script, sha, Boolean.TRUE.equals(readOnly));
+            luaScripts.put(name, luaScript);
+
+            Map<String, Object> resultData = new HashMap<>();
+            resultData.put("name", name);
+            resultData.put("sha", sha);
+            resultData.put("readOnly", luaScript.readOnly());
+
+            return objectMapper.writeValueAsString(Response.ok(resultData));
+
+        } catch (Exception e) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.SCRIPT_EXECUTION_ERROR));
+            } catch (Exception ex) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+    }
+
+    @Tool(description = "执行已注册的Lua脚本，优先使用EVALSHA，服务端没有缓存该脚本时自动退回EVAL并重新缓存")
+    public String executeLuaScript(
+            @ToolParam(description = "脚本名称") String name,
+            @ToolParam(description = "传给脚本的键列表，对应KEYS", required = false) List<String> keys,
+            @ToolParam(description = "传给脚本的参数列表，对应ARGV", required = false) List<String> args
+    ) {
+        if (jedisPool == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        LuaScript luaScript = luaScripts.get(name);
+        if (luaScript == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.SCRIPT_NOT_FOUND));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        List<String> scriptKeys = keys != null ? keys : Collections.emptyList();
+        List<String> scriptArgs = args != null ? args : Collections.emptyList();
+
+        try (Jedis jedis = getResource()) {
+            Object result;
+            try {
+                result = luaScript.readOnly()
+                        ? jedis.evalshaReadonly(luaScript.sha(), scriptKeys, scriptArgs)
+                        : jedis.evalsha(luaScript.sha(), scriptKeys, scriptArgs);
+            } catch (JedisNoScriptException e) {
+                // 服务端脚本缓存被清空或切换了Redis实例，EVAL会同时把脚本重新缓存
+                result = luaScript.readOnly()
+                        ? jedis.evalReadonly(luaScript.source(), scriptKeys, scriptArgs)
+                        : jedis.eval(luaScript.source(), scriptKeys, scriptArgs);
+            }
+
+            Map<String, Object> resultData = new HashMap<>();
+            resultData.put("name", name);
+            resultData.put("result", result);
+
+            return objectMapper.writeValueAsString(Response.ok(resultData));
+
+        } catch (Exception e) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.SCRIPT_EXECUTION_ERROR));
+            } catch (Exception ex) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+    }
+
+    @Tool(description = "查询已注册的Lua脚本")
+    public String getLuaScripts() {
+        try {
+            List<Map<String, Object>> scripts = new ArrayList<>();
+            luaScripts.forEach((name, luaScript) -> {
+                Map<String, Object> script = new HashMap<>();
+                script.put("name", name);
+                script.put("sha", luaScript.sha());
+                script.put("readOnly", luaScript.readOnly());
+                scripts.add(script);
+            });
+
+            Map<String, Object> resultData = new HashMap<>();
+            resultData.put("scripts", scripts);
+            resultData.put("count", scripts.size());
+
+            return objectMapper.writeValueAsString(Response.ok(resultData));
+        } catch (Exception e) {
+            return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+        }
+    }
+
+    @Tool(description = "按模式批量导出Redis键到本地文件，通过SCAN遍历并批量流水线执行DUMP和PTTL，保留剩余过期时间，导出文件可用importKeys导入到其他Redis实例。文件只能写在服务端配置的mcp.redis.dump-dir目录下")
+    public String exportKeys(
+            @ToolParam(description = "键名匹配模式，如user:*，不传时导出全部键", required = false) String pattern,
+            @ToolParam(description = "导出文件路径，相对于mcp.redis.dump-dir目录，如backup/users.bin，解析后位于该目录之外的路径会被拒绝") String filePath,
+            @ToolParam(description = "每批SCAN和流水线的键数量，默认1000", required = false) Integer batchSize
+    ) {
+        if (jedisPool == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        long start = System.nanoTime();
+        int batch = batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        Path tmp = null;
+
+        try {
+            Path path = dumpPath(filePath);
+            ScanParams scanParams = new ScanParams()
+                    .match((pattern == null || pattern.isEmpty() ? "*" : pattern).getBytes(StandardCharsets.UTF_8))
+                    .count(batch);
+
+            long keyCount = 0;
+            long skipped = 0;
+            long bytes;
+            try (Jedis jedis = getResource()) {
+                Files.createDirectories(path.getParent());
+                checkRealPath(path.getParent());
+                // 先写同目录下的临时文件，导出完整后再替换目标文件，失败或中断时不会留下不完整的导出文件
+                tmp = Files.createTempFile(path.getParent(), path.getFileName() + ".", ".tmp");
+                try (RedisDumpFile.Writer writer = new RedisDumpFile.Writer(tmp)) {
+                    byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+                    do {
+                        ScanResult<byte[]> scanResult = jedis.scan(cursor, scanParams);
+                        cursor = scanResult.getCursorAsBytes();
+                        List<byte[]> keys = scanResult.getResult();
+                        if (keys.isEmpty()) {
+                            continue;
+                        }
+
+                        // 每批只占用一次往返，DUMP和PTTL放在同一个流水线中
+                        Pipeline pipeline = jedis.pipelined();
+                        List<redis.clients.jedis.Response<byte[]>> dumps = new ArrayList<>(keys.size());
+                        List<redis.clients.jedis.Response<Long>> ttls = new ArrayList<>(keys.size());
+                        for (byte[] key : keys) {
+                            dumps.add(pipeline.dump(key));
+                            ttls.add(pipeline.pttl(key));
+                        }
+                        pipeline.sync();
+
+                        for (int i = 0; i < keys.size(); i++) {
+                            byte[] dump = dumps.get(i).get();
+                            long ttl = ttls.get(i).get();
+                            // SCAN之后键已过期或被删除
+                            if (dump == null || ttl == -2 || ttl == 0) {
+                                skipped++;
+                                continue;
+                            }
+                            writer.write(keys.get(i), ttl == -1 ? 0 : ttl, dump);
+                            keyCount++;
+                        }
+                    } while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
+                    bytes = writer.getBytes();
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Map<String, Object> resultData = new HashMap<>();
+            resultData.put("filePath", path.toString());
+            resultData.put("keys", keyCount);
+            resultData.put("skipped", skipped);
+            resultData.put("bytes", bytes);
+            resultData.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            return objectMapper.writeValueAsString(Response.ok(resultData));
+
+        } catch (Exception e) {
+            // 只删除本次导出的临时文件，目标路径上已有的文件保持不变
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                }
+            }
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.EXPORT_ERROR));
+            } catch (Exception ex) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+    }
+
+    @Tool(description = "从exportKeys导出的本地文件批量导入Redis键，按批流水线执行RESTORE，多个连接并行导入。文件只能从服务端配置的mcp.redis.dump-dir目录下读取")
+    public String importKeys(
+            @ToolParam(description = "导出文件路径，相对于mcp.redis.dump-dir目录，解析后位于该目录之外的路径会被拒绝") String filePath,
+            @ToolParam(description = "每批流水线的键数量，默认1000", required = false) Integer batchSize,
+            @ToolParam(description = "并行导入的连接数，默认4，不超过连接池最大连接数", required = false) Integer parallelism,
+            @ToolParam(description = "键已存在时是否覆盖，默认不覆盖并计入失败数", required = false) Boolean replace
+    ) {
+        if (jedisPool == null) {
+            try {
+                return objectMapper.writeValueAsString(Response.error(Code.DB_CONNECTION_ERROR));
+            } catch (Exception e) {
+                return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+            }
+        }
+
+        long start = System.nanoTime();
+        int batch = batchSize != null && batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        int threads = importThreads(parallelism, jedisPool.getMaxTotal());
+        RestoreParams restoreParams = Boolean.TRUE.equals(replace) ? RestoreParams.restoreParams().replace() : null;
+
+        AtomicLong restored = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicReference<String> firstError = new AtomicReference<>();
+        ExecutorService executor = null;
+
+        String readError = null;
+        try {
+            Path path = dumpPath(filePath);
+            checkRealPath(path);
+            // 限制已读入但未导入的批次数，内存占用与文件大小无关
+            Semaphore inFlight = new Semaphore(threads * 2);
+            executor = Executors.newFixedThreadPool(threads);
+            try (RedisDumpFile.Reader reader = new RedisDumpFile.Reader(path)) {
+                List<RedisDumpFile.Entry> entries = new ArrayList<>(batch);
+                RedisDumpFile.Entry entry;
+                while ((entry = reader.next()) != null) {
+                    entries.add(entry);
+                    if (entries.size() == batch) {
+                        submitRestore(executor, inFlight, entries, restoreParams, restored, failed, firstError);
+                        entries = new ArrayList<>(batch);
+                    }
+                }
+                if (!entries.isEmpty()) {
+                    submitRestore(executor, inFlight, entries, restoreParams, restored, failed, firstError);
+                }
+            }
+        } catch (Exception e) {
+            readError = String.valueOf(e.getMessage());
+        }
+
+        // 文件读取失败时也要等已提交的批次执行完，返回后不会再有后台RESTORE，返回的数量就是实际导入的数量
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        try {
+            Map<String, Object> resultData = new HashMap<>();
+            resultData.put("filePath", filePath);
+            resultData.put("restored", restored.get());
+            resultData.put("failed", failed.get());
+            if (firstError.get() != null) {
+                resultData.put("firstError", firstError.get());
+            }
+            resultData.put("parallelism", threads);
+            resultData.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            if (readError != null) {
+                resultData.put("error", readError);
+                return objectMapper.writeValueAsString(Response.error(Code.IMPORT_ERROR, resultData));
+            }
+            return objectMapper.writeValueAsString(Response.ok(resultData));
+        } catch (Exception e) {
+            return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+        }
+    }
+
+    /**
+     * 按mcp.redis.dump-dir解析导出导入文件路径，../或绝对路径规范化后不在该目录下时拒绝
+     */
+    Path dumpPath(String filePath) {
+        if (filePath == null || filePath.isBlank()) {
+            throw new IllegalArgumentException("文件路径不能为空");
+        }
+        Path base = dumpDir();
+        Path path = base.resolve(filePath).normalize();
+        if (!path.startsWith(base) || path.equals(base)) {
+            throw new IllegalArgumentException("文件路径必须位于" + base + "目录下: " + filePath);
+        }
+        return path;
+    }
+
+    /**
+     * 路径已存在时按真实路径再检查一次，防止通过目录下的符号链接指向目录之外
+     */
+    private void checkRealPath(Path path) throws IOException {
+        Path base = dumpDir();
+        if (!Files.exists(base) || !path.toRealPath().startsWith(base.toRealPath())) {
+            throw new IllegalArgumentException("文件路径必须位于" + base + "目录下: " + path);
+        }
+    }
+
+    private Path dumpDir() {
+        return Paths.get(dumpProperties.getDumpDir()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * 并行导入的线程数：不超过连接池最大连接数，maxTotal不大于0时连接池不限制连接数，至少1个线程
+     */
+    static int importThreads(Integer parallelism, int maxTotal) {
+        int threads = parallelism != null && parallelism > 0 ? parallelism : DEFAULT_IMPORT_PARALLELISM;
+        if (maxTotal > 0) {
+            threads = Math.min(threads, maxTotal);
+        }
+        return Math.max(1, threads);
+    }
+
+    /**
+     * 提交一批RESTORE，在途批次已满时阻塞读取线程
+     */
+    private void submitRestore(ExecutorService executor, Semaphore inFlight, List<RedisDumpFile.Entry> entries,
+                               RestoreParams restoreParams, AtomicLong restored, AtomicLong failed,
+                               AtomicReference<String> firstError) throws InterruptedException {
+        inFlight.acquire();
+        executor.execute(() -> {
+            try (Jedis jedis = getResource()) {
+                Pipeline pipeline = jedis.pipelined();
+                List<redis.clients.jedis.Response<String>> responses = new ArrayList<>(entries.size());
+                for (RedisDumpFile.Entry entry : entries) {
+                    responses.add(restoreParams != null
+                            ? pipeline.restore(entry.key(), entry.ttlMillis(), entry.dump(), restoreParams)
+                            : pipeline.restore(entry.key(), entry.ttlMillis(), entry.dump()));
+                }
+                pipeline.sync();
+                for (redis.clients.jedis.Response<String> response : responses) {
+                    try {
+                        response.get();
+                        restored.incrementAndGet();
+                    } catch (JedisDataException e) {
+                        failed.incrementAndGet();
+                        firstError.compareAndSet(null, e.getMessage());
+                    }
+                }
+            } catch (Exception e) {
+                failed.addAndGet(entries.size());
+                firstError.compareAndSet(null, e.getMessage());
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * 已注册的Lua脚本，保留脚本内容用于NOSCRIPT时退回EVAL
+     */
+    private record LuaScript(String source, String sha, boolean readOnly) {
+    }
+}
\ No newline at end of file
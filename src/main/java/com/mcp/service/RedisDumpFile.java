@@ -0,0 +1,185 @@
+package com.mcp.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @Description Redis键导出文件格式，通过FileChannel和固定大小的直接缓冲区顺序读写，内存占用与键数量无关。
+ *              文件头为魔数"MCPRDUMP"和版本号，之后每条记录为：
+ *              [int 键长度][键][long 剩余过期时间毫秒，0表示不过期][int DUMP长度][DUMP数据]
+ */
+final class RedisDumpFile {
+
+    private static final byte[] MAGIC = {'M', 'C', 'P', 'R', 'D', 'U', 'M', 'P'};
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private RedisDumpFile() {
+    }
+
+    /**
+     * 一条导出记录
+     */
+    record Entry(byte[] key, long ttlMillis, byte[] dump) {
+    }
+
+    static class Writer implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private long bytes;
+
+        Writer(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE);
+            buffer.put(MAGIC).putInt(VERSION);
+        }
+
+        void write(byte[] key, long ttlMillis, byte[] dump) throws IOException {
+            ensure(Integer.BYTES);
+            buffer.putInt(key.length);
+            put(key);
+            ensure(Long.BYTES + Integer.BYTES);
+            buffer.putLong(ttlMillis).putInt(dump.length);
+            put(dump);
+        }
+
+        private void ensure(int count) throws IOException {
+            if (buffer.remaining() < count) {
+                flush();
+            }
+        }
+
+        private void put(byte[] data) throws IOException {
+            if (data.length > buffer.remaining()) {
+                flush();
+            }
+            if (data.length <= buffer.remaining()) {
+                buffer.put(data);
+            } else {
+                // 超过缓冲区大小的值直接写入，不经过缓冲区
+                writeFully(ByteBuffer.wrap(data));
+            }
+        }
+
+        long getBytes() {
+            return bytes + buffer.position();
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining()) {
+                bytes += channel.write(source);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+                channel.force(false);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    static class Reader implements Closeable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private boolean eof;
+
+        Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer.flip();
+            byte[] magic = new byte[MAGIC.length];
+            if (!fill(MAGIC.length + Integer.BYTES)) {
+                throw new IOException("不是有效的导出文件");
+            }
+            buffer.get(magic);
+            int version = buffer.getInt();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION) {
+                throw new IOException("不是有效的导出文件");
+            }
+        }
+
+        /**
+         * 读取下一条记录
+         *
+         * @return 文件结束时返回null
+         */
+        Entry next() throws IOException {
+            if (!fill(Integer.BYTES)) {
+                if (buffer.hasRemaining()) {
+                    throw new IOException("导出文件不完整");
+                }
+                return null;
+            }
+            byte[] key = new byte[readLength()];
+            read(key);
+            if (!fill(Long.BYTES + Integer.BYTES)) {
+                throw new IOException("导出文件不完整");
+            }
+            long ttlMillis = buffer.getLong();
+            byte[] dump = new byte[readLength()];
+            read(dump);
+            return new Entry(key, ttlMillis, dump);
+        }
+
+        /**
+         * 读取长度字段。损坏的文件可能给出负数或超过文件剩余大小的长度，直接分配数组会抛出
+         * NegativeArraySizeException或OutOfMemoryError
+         */
+        private int readLength() throws IOException {
+            int length = buffer.getInt();
+            if (length < 0 || length > channel.size() - channel.position() + buffer.remaining()) {
+                throw new IOException("导出文件已损坏");
+            }
+            return length;
+        }
+
+        private void read(byte[] target) throws IOException {
+            int offset = 0;
+            while (offset < target.length) {
+                if (!buffer.hasRemaining() && !fill(1)) {
+                    throw new IOException("导出文件不完整");
+                }
+                int length = Math.min(buffer.remaining(), target.length - offset);
+                buffer.get(target, offset, length);
+                offset += length;
+            }
+        }
+
+        /**
+         * 保证缓冲区中至少有count个字节可读
+         *
+         * @return 文件剩余字节不足时返回false
+         */
+        private boolean fill(int count) throws IOException {
+            while (buffer.remaining() < count && !eof) {
+                buffer.compact();
+                if (channel.read(buffer) < 0) {
+                    eof = true;
+                }
+                buffer.flip();
+            }
+            return buffer.remaining() >= count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mcp.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.config.MetricsProperties;
+import com.mcp.contant.Code;
+import com.mcp.entity.Response;
+import com.mcp.metrics.ToolMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ServerMetricsService {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ToolMetrics toolMetrics;
+    private final MetricsProperties properties;
+    private ScheduledExecutorService snapshotExecutor;
+
+    public ServerMetricsService(ToolMetrics toolMetrics, MetricsProperties properties) {
+        this.toolMetrics = toolMetrics;
+        this.properties = properties;
+    }
+
+    @Tool(description = "获取MCP服务端指标：各工具调用次数、按错误码统计的失败次数、延迟分布（p50/p99/p999）、返回字节数、返回行数、Redis连接池等待时间、MySQL新建连接耗时以及当前堆内存使用（heap.usedMb/committedMb/maxMb）")
+    public String getServerMetrics() {
+        try {
+            return objectMapper.writeValueAsString(Response.ok(toolMetrics.snapshot()));
+        } catch (Exception e) {
+            return "{\"code\":" + Code.JSON_SERIALIZATION_ERROR.getCode() + ",\"message\":\"" + Code.JSON_SERIALIZATION_ERROR.getMessage() + "\"}";
+        }
+    }
+
+    @PostConstruct
+    public void startSnapshot() {
+        String file = properties.getSnapshotFile();
+        if (!properties.isEnabled() || file == null || file.isBlank()) {
+            return;
+        }
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(properties.getSnapshotIntervalMillis(), 1000);
+        snapshotExecutor.scheduleWithFixedDelay(this::writeSnapshot, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stopSnapshot() {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+            // 退出前再写一次，保留最后的数据
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * 先写临时文件再替换，避免读取方读到写了一半的快照
+     */
+    private void writeSnapshot() {
+        try {
+            Path target = Paths.get(properties.getSnapshotFile()).toAbsolutePath();
+            Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+            objectMapper.writeValue(tmp.toFile(), toolMetrics.snapshot());
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            // 写快照失败不影响工具调用
+        }
+    }
+}
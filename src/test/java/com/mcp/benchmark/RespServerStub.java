@@ -0,0 +1,593 @@
+package com.mcp.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Description 进程内的Redis协议（RESP2）服务端替身，只实现RedisDBService用到的命令，
+ *              数据保存在内存中，命令串行执行（与Redis单线程模型一致），用于离线压测和单元测试
+ */
+public class RespServerStub implements Closeable {
+
+    private static final Pattern SCRIPT_PATTERN =
+            Pattern.compile("\\s*return\\s+redis\\.call\\((.*)\\)\\s*;?\\s*", Pattern.DOTALL);
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("(KEYS|ARGV)\\[(\\d+)]");
+    private static final Set<String> WRITE_COMMANDS = Set.of("SET", "DEL", "EXPIRE", "PEXPIRE", "FLUSHALL", "FLUSHDB",
+            "LPUSH", "RPUSH", "SADD", "HSET", "RESTORE");
+
+    private final ServerSocket serverSocket;
+    // 使用平台线程，虚拟线程在阻塞读写上的调度开销会放大到百微秒级，掩盖被测代码本身的耗时
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "resp-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object> data = new HashMap<>();
+    private final Map<String, Long> expires = new HashMap<>();
+    // SCRIPT LOAD/EVAL缓存的脚本，SHA1 -> 脚本内容
+    private final Map<String, String> scripts = new HashMap<>();
+    private final Map<String, Long> commandCounts = new HashMap<>();
+
+    public RespServerStub() throws IOException {
+        serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        executor.submit(this::acceptLoop);
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 当前保持的客户端连接数
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    /**
+     * 收到的某个命令的次数，包括脚本中通过redis.call执行的命令
+     */
+    public synchronized long getCommandCount(String name) {
+        return commandCounts.getOrDefault(name.toUpperCase(), 0L);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        // 阻塞在读取上的连接不响应中断，需要关闭连接，客户端才能感知到服务端已停止
+        for (Socket client : clients) {
+            client.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                clients.add(socket);
+                executor.submit(() -> serve(socket));
+            } catch (IOException e) {
+                // 服务端关闭
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream())) {
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                synchronized (this) {
+                    execute(command, out);
+                }
+                // 管道中还有命令时先不刷新，合并写回
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // 客户端断开
+        } catch (IOException e) {
+            // 连接异常
+        } finally {
+            clients.remove(socket);
+        }
+    }
+
+    private static List<byte[]> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            throw new EOFException();
+        }
+        if (type != '*') {
+            throw new IOException("只支持RESP数组格式的命令");
+        }
+        int count = (int) readLong(in);
+        List<byte[]> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("命令参数必须是Bulk String");
+            }
+            int length = (int) readLong(in);
+            args.add(in.readNBytes(length));
+            in.skipNBytes(2);
+        }
+        return args;
+    }
+
+    private static long readLong(InputStream in) throws IOException {
+        long value = 0;
+        boolean negative = false;
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b == -1) {
+                throw new EOFException();
+            }
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        in.read();
+        return negative ? -value : value;
+    }
+
+    /**
+     * 执行一条命令，调用方持有锁
+     */
+    protected void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = string(command.get(0)).toUpperCase();
+        commandCounts.merge(name, 1L, Long::sum);
+        List<String> args = new ArrayList<>(command.size() - 1);
+        for (int i = 1; i < command.size(); i++) {
+            args.add(string(command.get(i)));
+        }
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "ECHO" -> bulk(out, args.get(0));
+            case "GET" -> bulk(out, (String) live(args.get(0)));
+            case "SET" -> set(args, out);
+            case "DEL" -> {
+                long deleted = 0;
+                for (String key : args) {
+                    if (live(key) != null) {
+                        remove(key);
+                        deleted++;
+                    }
+                }
+                integer(out, deleted);
+            }
+            case "EXISTS" -> {
+                long exists = 0;
+                for (String key : args) {
+                    if (live(key) != null) {
+                        exists++;
+                    }
+                }
+                integer(out, exists);
+            }
+            case "TYPE" -> simple(out, type(live(args.get(0))));
+            case "TTL" -> {
+                long pttl = pttl(args.get(0));
+                integer(out, pttl < 0 ? pttl : (pttl + 999) / 1000);
+            }
+            case "PTTL" -> integer(out, pttl(args.get(0)));
+            case "EXPIRE" -> integer(out, expire(args.get(0), Long.parseLong(args.get(1)) * 1000));
+            case "PEXPIRE" -> integer(out, expire(args.get(0), Long.parseLong(args.get(1))));
+            case "KEYS" -> {
+                Pattern pattern = globPattern(args.get(0));
+                List<String> keys = new ArrayList<>();
+                for (String key : new ArrayList<>(data.keySet())) {
+                    if (live(key) != null && pattern.matcher(key).matches()) {
+                        keys.add(key);
+                    }
+                }
+                array(out, keys);
+            }
+            case "SCAN" -> scan(args, out);
+            case "DBSIZE" -> integer(out, data.size());
+            case "FLUSHALL", "FLUSHDB" -> {
+                data.clear();
+                expires.clear();
+                simple(out, "OK");
+            }
+            case "LPUSH", "RPUSH" -> {
+                List<String> list = collection(args.get(0), ArrayList::new);
+                for (int i = 1; i < args.size(); i++) {
+                    if ("LPUSH".equals(name)) {
+                        list.add(0, args.get(i));
+                    } else {
+                        list.add(args.get(i));
+                    }
+                }
+                integer(out, list.size());
+            }
+            case "LLEN" -> integer(out, sizeOf(live(args.get(0))));
+            case "LRANGE" -> {
+                @SuppressWarnings("unchecked")
+                List<String> list = (List<String>) live(args.get(0));
+                array(out, list == null ? List.of() : range(list, Long.parseLong(args.get(1)), Long.parseLong(args.get(2))));
+            }
+            case "SADD" -> {
+                Set<String> set = collection(args.get(0), LinkedHashSet::new);
+                long added = 0;
+                for (int i = 1; i < args.size(); i++) {
+                    if (set.add(args.get(i))) {
+                        added++;
+                    }
+                }
+                integer(out, added);
+            }
+            case "SCARD" -> integer(out, sizeOf(live(args.get(0))));
+            case "SMEMBERS" -> {
+                @SuppressWarnings("unchecked")
+                Set<String> set = (Set<String>) live(args.get(0));
+                array(out, set == null ? List.of() : new ArrayList<>(set));
+            }
+            case "HSET" -> {
+                Map<String, String> hash = hash(args.get(0));
+                long added = 0;
+                for (int i = 1; i + 1 < args.size(); i += 2) {
+                    if (hash.put(args.get(i), args.get(i + 1)) == null) {
+                        added++;
+                    }
+                }
+                integer(out, added);
+            }
+            case "HGET" -> {
+                @SuppressWarnings("unchecked")
+                Map<String, String> hash = (Map<String, String>) live(args.get(0));
+                bulk(out, hash == null ? null : hash.get(args.get(1)));
+            }
+            case "HLEN" -> integer(out, sizeOf(live(args.get(0))));
+            case "HGETALL" -> {
+                @SuppressWarnings("unchecked")
+                Map<String, String> hash = (Map<String, String>) live(args.get(0));
+                List<String> flat = new ArrayList<>();
+                if (hash != null) {
+                    hash.forEach((field, value) -> {
+                        flat.add(field);
+                        flat.add(value);
+                    });
+                }
+                array(out, flat);
+            }
+            case "SCRIPT" -> {
+                String subcommand = args.get(0).toUpperCase();
+                if ("LOAD".equals(subcommand)) {
+                    bulk(out, loadScript(args.get(1)));
+                } else if ("FLUSH".equals(subcommand)) {
+                    scripts.clear();
+                    simple(out, "OK");
+                } else {
+                    error(out, "ERR unknown subcommand '" + subcommand + "'");
+                }
+            }
+            case "EVAL", "EVAL_RO" -> {
+                loadScript(args.get(0));
+                eval(args.get(0), args, "EVAL_RO".equals(name), out);
+            }
+            case "EVALSHA", "EVALSHA_RO" -> {
+                String script = scripts.get(args.get(0).toLowerCase());
+                if (script == null) {
+                    error(out, "NOSCRIPT No matching script. Please use EVAL.");
+                    return;
+                }
+                eval(script, args, "EVALSHA_RO".equals(name), out);
+            }
+            case "DUMP" -> bulk(out, dump(live(args.get(0))));
+            case "RESTORE" -> {
+                String key = args.get(0);
+                boolean replace = args.size() > 3 && "REPLACE".equalsIgnoreCase(args.get(3));
+                if (live(key) != null && !replace) {
+                    error(out, "BUSYKEY Target key name already exists.");
+                    return;
+                }
+                data.put(key, restore(command.get(3)));
+                expires.remove(key);
+                long ttl = Long.parseLong(args.get(1));
+                if (ttl > 0) {
+                    expires.put(key, System.currentTimeMillis() + ttl);
+                }
+                simple(out, "OK");
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    private void set(List<String> args, OutputStream out) throws IOException {
+        String key = args.get(0);
+        boolean exists = live(key) != null;
+        long expireMillis = -1;
+        for (int i = 2; i < args.size(); i++) {
+            String option = args.get(i).toUpperCase();
+            if ("NX".equals(option) && exists || "XX".equals(option) && !exists) {
+                bulk(out, (String) null);
+                return;
+            } else if ("EX".equals(option)) {
+                expireMillis = Long.parseLong(args.get(++i)) * 1000;
+            } else if ("PX".equals(option)) {
+                expireMillis = Long.parseLong(args.get(++i));
+            }
+        }
+        data.put(key, args.get(1));
+        expires.remove(key);
+        if (expireMillis > 0) {
+            expires.put(key, System.currentTimeMillis() + expireMillis);
+        }
+        simple(out, "OK");
+    }
+
+    /**
+     * 游标即已遍历的键数量，遍历期间写入的键可能被跳过或重复返回，与Redis的SCAN语义一致
+     */
+    private void scan(List<String> args, OutputStream out) throws IOException {
+        long cursor = Long.parseLong(args.get(0));
+        Pattern pattern = null;
+        int count = 10;
+        for (int i = 1; i < args.size(); i++) {
+            String option = args.get(i).toUpperCase();
+            if ("MATCH".equals(option)) {
+                pattern = globPattern(args.get(++i));
+            } else if ("COUNT".equals(option)) {
+                count = Integer.parseInt(args.get(++i));
+            }
+        }
+        List<String> keys = new ArrayList<>();
+        long position = 0;
+        long next = 0;
+        for (String key : new ArrayList<>(data.keySet())) {
+            if (position++ < cursor) {
+                continue;
+            }
+            if (live(key) != null && (pattern == null || pattern.matcher(key).matches())) {
+                keys.add(key);
+            }
+            if (position - cursor >= count) {
+                next = position;
+                break;
+            }
+        }
+        out.write("*2\r\n".getBytes(StandardCharsets.UTF_8));
+        bulk(out, String.valueOf(next));
+        array(out, keys);
+    }
+
+    private String loadScript(String script) {
+        try {
+            String sha = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1")
+                    .digest(script.getBytes(StandardCharsets.UTF_8)));
+            scripts.put(sha, script);
+            return sha;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 没有Lua解释器，只支持return redis.call('命令', KEYS[n]/ARGV[n]/'字面量', ...)形式的脚本，
+     * 脚本的返回值就是该命令的返回值
+     */
+    private void eval(String script, List<String> args, boolean readOnly, OutputStream out) throws IOException {
+        Matcher matcher = SCRIPT_PATTERN.matcher(script);
+        if (!matcher.matches()) {
+            error(out, "ERR stub only supports 'return redis.call(...)' scripts");
+            return;
+        }
+        int numKeys = Integer.parseInt(args.get(1));
+        List<String> keys = args.subList(2, 2 + numKeys);
+        List<String> argv = args.subList(2 + numKeys, args.size());
+
+        List<byte[]> command = new ArrayList<>();
+        for (String token : matcher.group(1).split(",")) {
+            token = token.trim();
+            Matcher reference = REFERENCE_PATTERN.matcher(token);
+            String value;
+            if (reference.matches()) {
+                List<String> source = "KEYS".equals(reference.group(1)) ? keys : argv;
+                value = source.get(Integer.parseInt(reference.group(2)) - 1);
+            } else {
+                value = token.substring(1, token.length() - 1);
+            }
+            command.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        if (readOnly && WRITE_COMMANDS.contains(string(command.get(0)).toUpperCase())) {
+            error(out, "ERR Write commands are not allowed from read-only scripts.");
+            return;
+        }
+        execute(command, out);
+    }
+
+    /**
+     * DUMP的序列化格式只需能被本替身RESTORE，使用Java序列化
+     */
+    private static byte[] dump(Object value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+            objectOut.writeObject(value);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object restore(byte[] dump) throws IOException {
+        try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(dump))) {
+            return objectIn.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 获取未过期的值，已过期的键在访问时删除
+     */
+    protected Object live(String key) {
+        Long expireAt = expires.get(key);
+        if (expireAt != null && expireAt <= System.currentTimeMillis()) {
+            remove(key);
+            return null;
+        }
+        return data.get(key);
+    }
+
+    protected void remove(String key) {
+        data.remove(key);
+        expires.remove(key);
+    }
+
+    protected long pttl(String key) {
+        if (live(key) == null) {
+            return -2;
+        }
+        Long expireAt = expires.get(key);
+        return expireAt == null ? -1 : Math.max(expireAt - System.currentTimeMillis(), 0);
+    }
+
+    private long expire(String key, long millis) {
+        if (live(key) == null) {
+            return 0;
+        }
+        expires.put(key, System.currentTimeMillis() + millis);
+        return 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <C extends Collection<String>> C collection(String key, Supplier<C> factory) {
+        Object value = live(key);
+        if (value == null) {
+            value = factory.get();
+            data.put(key, value);
+        }
+        return (C) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> hash(String key) {
+        Object value = live(key);
+        if (value == null) {
+            value = new LinkedHashMap<String, String>();
+            data.put(key, value);
+        }
+        return (Map<String, String>) value;
+    }
+
+    private static String type(Object value) {
+        if (value == null) {
+            return "none";
+        } else if (value instanceof String) {
+            return "string";
+        } else if (value instanceof List) {
+            return "list";
+        } else if (value instanceof Set) {
+            return "set";
+        }
+        return "hash";
+    }
+
+    private static long sizeOf(Object value) {
+        if (value instanceof Collection<?> collection) {
+            return collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            return map.size();
+        }
+        return 0;
+    }
+
+    private static List<String> range(List<String> list, long start, long stop) {
+        int size = list.size();
+        int from = (int) (start < 0 ? Math.max(size + start, 0) : Math.min(start, size));
+        int to = (int) (stop < 0 ? size + stop : Math.min(stop, size - 1));
+        return from > to ? List.of() : new ArrayList<>(list.subList(from, to + 1));
+    }
+
+    protected static Pattern globPattern(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : glob.toCharArray()) {
+            switch (c) {
+                case '*' -> regex.append(".*");
+                case '?' -> regex.append('.');
+                default -> regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    protected static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    protected static void simple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void error(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void bulk(OutputStream out, String value) throws IOException {
+        bulk(out, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected static void bulk(OutputStream out, byte[] value) throws IOException {
+        if (value == null) {
+            out.write("$-1\r\n".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+        out.write(value);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    protected static void array(OutputStream out, List<String> values) throws IOException {
+        out.write(("*" + values.size() + "\r\n").getBytes(StandardCharsets.UTF_8));
+        for (String value : values) {
+            bulk(out, value);
+        }
+    }
+}
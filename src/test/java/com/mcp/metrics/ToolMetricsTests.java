@@ -0,0 +1,81 @@
+package com.mcp.metrics;
+
+import com.mcp.config.MetricsProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolMetricsTests {
+
+    @Test
+    void extractCode() {
+        assertEquals(200, ToolMetrics.extractCode("{\"code\":200,\"message\":\"success\",\"data\":null}"));
+        assertEquals(5003, ToolMetrics.extractCode("\"{\\\"code\\\":5003,\\\"message\\\":\\\"SQL执行失败\\\"}\""));
+        assertEquals(-1, ToolMetrics.extractCode("\"ok\""));
+    }
+
+    @Test
+    void utf8Length() {
+        assertEquals(5, ToolMetrics.utf8Length("hello"));
+        assertEquals(6, ToolMetrics.utf8Length("系统"));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000.0, histogram.getMaxMillis());
+        // 分桶误差不超过12.5%
+        assertTrue(Math.abs(histogram.getPercentileMillis(50) - 500) <= 500 * 0.125);
+        assertTrue(Math.abs(histogram.getPercentileMillis(99) - 990) <= 990 * 0.125);
+        assertTrue(histogram.getPercentileMillis(99.9) <= 1000.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordCallCountsErrorsByCode() {
+        ToolMetrics toolMetrics = new ToolMetrics(new MetricsProperties());
+        toolMetrics.recordCall("executeSQL", 1_000_000, "{\"code\":200,\"message\":\"success\"}");
+        toolMetrics.recordCall("executeSQL", 2_000_000, "{\"code\":5003,\"message\":\"SQL执行失败\"}");
+        toolMetrics.recordRows("executeSQL", 42);
+
+        Map<String, Object> tools = (Map<String, Object>) toolMetrics.snapshot().get("tools");
+        Map<String, Object> stats = (Map<String, Object>) tools.get("executeSQL");
+        assertEquals(2L, stats.get("calls"));
+        assertEquals(1L, stats.get("errors"));
+        assertEquals(42L, stats.get("rows"));
+        assertEquals(Map.of("5003_SQL_EXECUTION_ERROR", 1L), stats.get("errorsByCode"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void connectionAcquireIsSeparateFromPoolWait() {
+        ToolMetrics toolMetrics = new ToolMetrics(new MetricsProperties());
+        toolMetrics.recordPoolWait("redis", 1_000_000);
+        toolMetrics.recordConnectionAcquire("mysql", 5_000_000);
+
+        Map<String, Object> snapshot = toolMetrics.snapshot();
+        assertEquals(Set.of("redis"), ((Map<String, Object>) snapshot.get("poolWaitMillis")).keySet());
+        assertEquals(Set.of("mysql"), ((Map<String, Object>) snapshot.get("connectionAcquireMillis")).keySet());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotReportsCurrentHeap() {
+        // 堆使用直接读取MemoryMXBean，没有发生过GC时也应当有值
+        Map<String, Object> heap = (Map<String, Object>) new ToolMetrics(new MetricsProperties()).snapshot().get("heap");
+        double usedMb = (double) heap.get("usedMb");
+        double committedMb = (double) heap.get("committedMb");
+        assertTrue(usedMb > 0);
+        assertTrue(committedMb >= usedMb);
+    }
+}
@@ -0,0 +1,355 @@
+package com.mcp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mcp.benchmark.RespServerStub;
+import com.mcp.config.MetricsProperties;
+import com.mcp.config.RedisDumpProperties;
+import com.mcp.config.RedisPoolProperties;
+import com.mcp.contant.Code;
+import com.mcp.metrics.ToolMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * RedisDBService工具测试，连接进程内的Redis协议替身，导出/导入在两个替身之间往返
+ */
+class RedisDBServiceTests {
+
+    private static final int KEYS = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path dir;
+
+    // mcp.redis.dump-dir，导出导入文件路径都相对于该目录
+    private Path dumps;
+    private RespServerStub source;
+    private RespServerStub target;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dumps = Files.createDirectories(dir.resolve("dumps"));
+        source = new RespServerStub();
+        target = new RespServerStub();
+        try (Jedis jedis = jedis(source)) {
+            Pipeline pipeline = jedis.pipelined();
+            for (int i = 0; i < KEYS; i++) {
+                pipeline.set("user:" + i, "value-" + i);
+                if (i % 10 == 0) {
+                    pipeline.pexpire("user:" + i, 600_000);
+                }
+            }
+            pipeline.rpush("list:1", "a", "b", "c");
+            pipeline.hset("hash:1", "field", "value");
+            pipeline.sync();
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        source.close();
+        target.close();
+    }
+
+    @Test
+    void exportImportRoundTrip() throws IOException {
+        Path file = dumps.resolve("export/all.bin");
+        JsonNode exported = call(service(source).exportKeys(null, "export/all.bin", 700));
+        assertEquals(Code.SUCCESS.getCode(), exported.path("code").asInt());
+        assertEquals(KEYS + 2, exported.path("data").path("keys").asLong());
+        assertEquals(Files.size(file), exported.path("data").path("bytes").asLong());
+
+        JsonNode imported = call(service(target).importKeys("export/all.bin", 300, 4, null));
+        assertEquals(Code.SUCCESS.getCode(), imported.path("code").asInt());
+        assertEquals(KEYS + 2, imported.path("data").path("restored").asLong());
+        assertEquals(0, imported.path("data").path("failed").asLong());
+
+        try (Jedis jedis = jedis(target)) {
+            assertEquals(KEYS + 2, jedis.dbSize());
+            assertEquals("value-7", jedis.get("user:7"));
+            assertEquals(-1, jedis.pttl("user:7"));
+            long ttl = jedis.pttl("user:10");
+            assertTrue(ttl > 0 && ttl <= 600_000);
+            assertEquals(List.of("a", "b", "c"), jedis.lrange("list:1", 0, -1));
+            assertEquals(Map.of("field", "value"), jedis.hgetAll("hash:1"));
+        }
+
+        // 不覆盖时已存在的键计入失败，覆盖时全部导入
+        JsonNode again = call(service(target).importKeys("export/all.bin", null, null, null));
+        assertEquals(0, again.path("data").path("restored").asLong());
+        assertEquals(KEYS + 2, again.path("data").path("failed").asLong());
+        JsonNode replaced = call(service(target).importKeys("export/all.bin", null, 2, true));
+        assertEquals(KEYS + 2, replaced.path("data").path("restored").asLong());
+    }
+
+    @Test
+    void exportByPattern() throws IOException {
+        JsonNode exported = call(service(source).exportKeys("user:1*", "users.bin", null));
+        // user:1, user:10..19, user:100..199, user:1000..1999
+        assertEquals(1111, exported.path("data").path("keys").asLong());
+    }
+
+    @Test
+    void failedExportKeepsExistingFile() throws IOException {
+        Path file = dumps.resolve("existing.bin");
+        Files.writeString(file, "unrelated");
+        RedisDBService service = service(source);
+        source.close();
+
+        JsonNode exported = call(service.exportKeys(null, "existing.bin", null));
+        assertEquals(Code.EXPORT_ERROR.getCode(), exported.path("code").asInt());
+        assertEquals("unrelated", Files.readString(file));
+        try (var files = Files.list(dumps)) {
+            assertEquals(List.of(file), files.toList());
+        }
+
+        assertEquals(Code.EXPORT_ERROR.getCode(), call(service.exportKeys(null, null, null)).path("code").asInt());
+    }
+
+    @Test
+    void truncatedImportReportsPartialCounts() throws IOException {
+        Path file = dumps.resolve("truncated.bin");
+        call(service(source).exportKeys(null, "truncated.bin", null));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() / 2);
+        }
+
+        JsonNode imported = call(service(target).importKeys("truncated.bin", 200, 4, null));
+        assertEquals(Code.IMPORT_ERROR.getCode(), imported.path("code").asInt());
+        long restored = imported.path("data").path("restored").asLong();
+        assertTrue(restored > 0 && restored < KEYS);
+        // 返回时已提交的批次都已执行完，不会再有后台写入
+        try (Jedis jedis = jedis(target)) {
+            assertEquals(restored, jedis.dbSize());
+        }
+    }
+
+    @Test
+    void rejectsPathsOutsideDumpDir() throws IOException {
+        Path outside = dir.resolve("outside.bin");
+        RedisDBService service = service(source);
+        for (String filePath : List.of("../outside.bin", "export/../../outside.bin", outside.toString(), ".", "")) {
+            assertEquals(Code.EXPORT_ERROR.getCode(), call(service.exportKeys(null, filePath, null)).path("code").asInt());
+            assertFalse(Files.exists(outside));
+        }
+
+        // 目录内的符号链接指向目录之外时同样拒绝
+        call(service.exportKeys(null, "inside.bin", null));
+        Files.copy(dumps.resolve("inside.bin"), outside);
+        Files.createSymbolicLink(dumps.resolve("link"), dir);
+        assertEquals(Code.EXPORT_ERROR.getCode(), call(service.exportKeys(null, "link/linked.bin", null)).path("code").asInt());
+        assertFalse(Files.exists(dir.resolve("linked.bin")));
+
+        RedisDBService targetService = service(target);
+        for (String filePath : List.of("../outside.bin", outside.toString(), "link/outside.bin")) {
+            JsonNode imported = call(targetService.importKeys(filePath, null, null, null));
+            assertEquals(Code.IMPORT_ERROR.getCode(), imported.path("code").asInt());
+            assertEquals(0, imported.path("data").path("restored").asLong());
+        }
+        try (Jedis jedis = jedis(target)) {
+            assertEquals(0, jedis.dbSize());
+        }
+    }
+
+    @Test
+    void importWithUnboundedPool() {
+        // maxTotal=-1表示连接池不限制连接数，并行数按请求值，不能算出负数线程数
+        call(service(source).exportKeys("user:1*", "unbounded.bin", null));
+        RedisDBService service = newService(new RedisPoolProperties());
+        call(service.initRedisConnection(target.getHost(), target.getPort(), null, -1, null, null, null, null, null));
+
+        JsonNode imported = call(service.importKeys("unbounded.bin", 100, 3, null));
+        assertEquals(Code.SUCCESS.getCode(), imported.path("code").asInt());
+        assertEquals(3, imported.path("data").path("parallelism").asInt());
+        assertEquals(1111, imported.path("data").path("restored").asLong());
+
+        assertEquals(4, RedisDBService.importThreads(null, -1));
+        assertEquals(2, RedisDBService.importThreads(8, 2));
+        assertEquals(3, RedisDBService.importThreads(3, 0));
+    }
+
+    @Test
+    void initOverridesPoolProperties() {
+        RedisPoolProperties properties = new RedisPoolProperties();
+        properties.setMaxTotal(7);
+        properties.setMinIdle(1);
+        RedisDBService service = newService(properties);
+
+        call(service.initRedisConnection(source.getHost(), source.getPort(), null, null, null, null, null, null, null));
+        JsonNode stats = call(service.getRedisPoolStats()).path("data");
+        assertEquals(7, stats.path("maxTotal").asInt());
+        assertEquals(1, stats.path("minIdle").asInt());
+
+        // 调用参数优先于mcp.redis.pool.*，初始化时预热minIdle个连接
+        call(service.initRedisConnection(source.getHost(), source.getPort(), null, 3, 3, 2, null, null, null));
+        stats = call(service.getRedisPoolStats()).path("data");
+        assertEquals(3, stats.path("maxTotal").asInt());
+        assertEquals(3, stats.path("maxIdle").asInt());
+        assertEquals(2, stats.path("minIdle").asInt());
+        assertEquals(2, stats.path("created").asInt());
+        assertEquals(2, stats.path("idle").asInt());
+        assertEquals(0, stats.path("active").asInt());
+        assertEquals(0, stats.path("exhausted").asInt());
+    }
+
+    @Test
+    void reinitClosesPreviousPool() throws InterruptedException {
+        RedisDBService service = newService(new RedisPoolProperties());
+        call(service.initRedisConnection(source.getHost(), source.getPort(), null, null, null, 4, null, null, null));
+        awaitClients(source, 4);
+
+        call(service.initRedisConnection(target.getHost(), target.getPort(), null, null, null, 2, null, null, null));
+        awaitClients(target, 2);
+        // 旧连接池的连接全部关闭
+        awaitClients(source, 0);
+    }
+
+    @Test
+    void exhaustedCountsOnlyBorrowTimeouts() throws IOException {
+        PingFailingStub stub = new PingFailingStub();
+        try (stub) {
+            RedisDBService service = newService(new RedisPoolProperties());
+            call(service.initRedisConnection(stub.getHost(), stub.getPort(), null, 1, 1, 0, 100L, null, true));
+
+            try (Jedis held = service.getResource()) {
+                assertNotEquals(Code.SUCCESS.getCode(), call(service.getAllKeys()).path("code").asInt());
+                assertEquals(1, call(service.getRedisPoolStats()).path("data").path("exhausted").asInt());
+            }
+
+            // 借出时PING校验失败同样包装成NoSuchElementException，但不算连接池耗尽
+            stub.failPing = true;
+            assertNotEquals(Code.SUCCESS.getCode(), call(service.getAllKeys()).path("code").asInt());
+            assertEquals(1, call(service.getRedisPoolStats()).path("data").path("exhausted").asInt());
+        }
+    }
+
+    @Test
+    void luaScriptUsesEvalshaAndFallsBackToEval() {
+        RedisDBService service = service(source);
+        JsonNode registered = call(service.registerLuaScript("setValue", "return redis.call('SET', KEYS[1], ARGV[1])", null));
+        assertEquals(Code.SUCCESS.getCode(), registered.path("code").asInt());
+
+        JsonNode result = call(service.executeLuaScript("setValue", List.of("script:1"), List.of("a")));
+        assertEquals(Code.SUCCESS.getCode(), result.path("code").asInt());
+        assertEquals(1, source.getCommandCount("EVALSHA"));
+        assertEquals(0, source.getCommandCount("EVAL"));
+
+        // 服务端脚本缓存被清空后收到NOSCRIPT，退回EVAL执行并重新缓存
+        try (Jedis jedis = jedis(source)) {
+            jedis.scriptFlush();
+        }
+        result = call(service.executeLuaScript("setValue", List.of("script:1"), List.of("b")));
+        assertEquals(Code.SUCCESS.getCode(), result.path("code").asInt());
+        assertEquals(1, source.getCommandCount("EVAL"));
+        call(service.executeLuaScript("setValue", List.of("script:1"), List.of("c")));
+        assertEquals(3, source.getCommandCount("EVALSHA"));
+        assertEquals(1, source.getCommandCount("EVAL"));
+
+        try (Jedis jedis = jedis(source)) {
+            assertEquals("c", jedis.get("script:1"));
+        }
+
+        JsonNode missing = call(service.executeLuaScript("unknown", null, null));
+        assertEquals(Code.SCRIPT_NOT_FOUND.getCode(), missing.path("code").asInt());
+    }
+
+    @Test
+    void readOnlyLuaScriptUsesEvalshaRo() {
+        RedisDBService service = service(source);
+        call(service.registerLuaScript("getValue", "return redis.call('GET', KEYS[1])", true));
+        call(service.registerLuaScript("setReadOnly", "return redis.call('SET', KEYS[1], ARGV[1])", true));
+
+        JsonNode result = call(service.executeLuaScript("getValue", List.of("user:7"), null));
+        assertEquals(Code.SUCCESS.getCode(), result.path("code").asInt());
+        assertEquals("value-7", result.path("data").path("result").asText());
+        assertEquals(1, source.getCommandCount("EVALSHA_RO"));
+        assertEquals(0, source.getCommandCount("EVALSHA"));
+
+        // 只读脚本中的写命令被拒绝
+        JsonNode rejected = call(service.executeLuaScript("setReadOnly", List.of("user:7"), List.of("x")));
+        assertEquals(Code.SCRIPT_EXECUTION_ERROR.getCode(), rejected.path("code").asInt());
+
+        try (Jedis jedis = jedis(source)) {
+            jedis.scriptFlush();
+        }
+        result = call(service.executeLuaScript("getValue", List.of("user:7"), null));
+        assertEquals("value-7", result.path("data").path("result").asText());
+        assertEquals(1, source.getCommandCount("EVAL_RO"));
+    }
+
+    private RedisDBService service(RespServerStub stub) {
+        RedisDBService service = newService(new RedisPoolProperties());
+        JsonNode result = call(service.initRedisConnection(stub.getHost(), stub.getPort(), null,
+                null, null, null, null, null, null));
+        assertEquals(Code.SUCCESS.getCode(), result.path("code").asInt());
+        return service;
+    }
+
+    private RedisDBService newService(RedisPoolProperties properties) {
+        RedisDumpProperties dumpProperties = new RedisDumpProperties();
+        dumpProperties.setDumpDir(dumps.toString());
+        return new RedisDBService(properties, dumpProperties, new ToolMetrics(new MetricsProperties()));
+    }
+
+    private static Jedis jedis(RespServerStub stub) {
+        return new Jedis(stub.getHost(), stub.getPort());
+    }
+
+    private JsonNode call(String json) {
+        try {
+            return objectMapper.readTree(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(json, e);
+        }
+    }
+
+    private static void awaitClients(RespServerStub stub, int expected) throws InterruptedException {
+        // 服务端在读到连接关闭后才移除连接，需要等待
+        long deadline = System.currentTimeMillis() + 5000;
+        while (stub.getClientCount() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, stub.getClientCount());
+    }
+
+    /**
+     * 可以让PING返回错误的替身，用于模拟借出时校验失败
+     */
+    private static class PingFailingStub extends RespServerStub {
+
+        volatile boolean failPing;
+
+        PingFailingStub() throws IOException {
+        }
+
+        @Override
+        protected void execute(List<byte[]> command, OutputStream out) throws IOException {
+            if (failPing && "PING".equalsIgnoreCase(new String(command.get(0), StandardCharsets.UTF_8))) {
+                error(out, "ERR ping disabled");
+                return;
+            }
+            super.execute(command, out);
+        }
+    }
+}
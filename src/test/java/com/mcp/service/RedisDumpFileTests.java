@@ -0,0 +1,128 @@
+package com.mcp.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RedisDumpFileTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        Path file = dir.resolve("dump.bin");
+        long bytes;
+        try (RedisDumpFile.Writer writer = new RedisDumpFile.Writer(file)) {
+            for (int i = 0; i < 10_000; i++) {
+                writer.write(bytes("key:" + i), i % 3 == 0 ? 60_000 + i : 0, bytes("value-" + i));
+            }
+            writer.write(bytes("empty"), 0, new byte[0]);
+            bytes = writer.getBytes();
+        }
+        assertEquals(Files.size(file), bytes);
+
+        try (RedisDumpFile.Reader reader = new RedisDumpFile.Reader(file)) {
+            for (int i = 0; i < 10_000; i++) {
+                RedisDumpFile.Entry entry = reader.next();
+                assertArrayEquals(bytes("key:" + i), entry.key());
+                assertEquals(i % 3 == 0 ? 60_000 + i : 0, entry.ttlMillis());
+                assertArrayEquals(bytes("value-" + i), entry.dump());
+            }
+            assertEquals(0, reader.next().dump().length);
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void valuesLargerThanBuffer() throws IOException {
+        // 超过1MiB缓冲区的值不经过缓冲区直接写入，前后的小记录仍然走缓冲区
+        byte[] large = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(large);
+        Path file = dir.resolve("large.bin");
+        try (RedisDumpFile.Writer writer = new RedisDumpFile.Writer(file)) {
+            writer.write(bytes("before"), 0, bytes("small"));
+            writer.write(bytes("large"), 1000, large);
+            writer.write(bytes("after"), 0, bytes("small"));
+        }
+
+        try (RedisDumpFile.Reader reader = new RedisDumpFile.Reader(file)) {
+            assertArrayEquals(bytes("before"), reader.next().key());
+            RedisDumpFile.Entry entry = reader.next();
+            assertArrayEquals(bytes("large"), entry.key());
+            assertEquals(1000, entry.ttlMillis());
+            assertArrayEquals(large, entry.dump());
+            assertArrayEquals(bytes("after"), reader.next().key());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void truncatedFile() throws IOException {
+        Path file = dir.resolve("truncated.bin");
+        try (RedisDumpFile.Writer writer = new RedisDumpFile.Writer(file)) {
+            writer.write(bytes("key:1"), 0, bytes("value-1"));
+            writer.write(bytes("key:2"), 0, bytes("value-2"));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (RedisDumpFile.Reader reader = new RedisDumpFile.Reader(file)) {
+            assertArrayEquals(bytes("key:1"), reader.next().key());
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void badHeader() throws IOException {
+        Path badMagic = dir.resolve("magic.bin");
+        Files.write(badMagic, header("NOTADUMP", 1));
+        assertThrows(IOException.class, () -> new RedisDumpFile.Reader(badMagic).close());
+
+        Path badVersion = dir.resolve("version.bin");
+        Files.write(badVersion, header("MCPRDUMP", 99));
+        assertThrows(IOException.class, () -> new RedisDumpFile.Reader(badVersion).close());
+
+        Path empty = dir.resolve("empty.bin");
+        Files.write(empty, new byte[0]);
+        assertThrows(IOException.class, () -> new RedisDumpFile.Reader(empty).close());
+    }
+
+    @Test
+    void corruptLength() throws IOException {
+        // 负数或超过文件剩余大小的长度应当报文件损坏，而不是NegativeArraySizeException或OutOfMemoryError
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            Path file = dir.resolve("length" + length + ".bin");
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            buffer.put(header("MCPRDUMP", 1)).putInt(length).put(bytes("key"));
+            Files.write(file, Arrays.copyOf(buffer.array(), buffer.position()));
+
+            try (RedisDumpFile.Reader reader = new RedisDumpFile.Reader(file)) {
+                assertThrows(IOException.class, reader::next);
+            }
+        }
+    }
+
+    private static byte[] header(String magic, int version) {
+        return ByteBuffer.allocate(12).put(bytes(magic)).putInt(version).array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}